@@ -0,0 +1,78 @@
+package mx.kenzie.argo;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads UTF-8 directly from a byte buffer (heap, direct or mapped) using absolute indexing,
+ * so the buffer's own position is never touched.
+ */
+class BufferInput extends Utf8Input {
+
+    protected ByteBuffer buffer;
+
+    BufferInput(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.position = buffer.position();
+        this.limit = buffer.limit();
+    }
+
+    protected BufferInput() {
+    }
+
+    @Override
+    int at(int index) {
+        return buffer.get(index);
+    }
+
+    @Override
+    String string(int start, int end) {
+        final byte[] bytes = new byte[end - start];
+        this.buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    String symbol(SymbolTable symbols, int start, int length, int hash) {
+        return symbols.get(buffer, start, length, hash);
+    }
+
+    /**
+     * Heap buffers are scanned through their backing array by the {@link Scanner}.
+     * Direct and mapped buffers are read a byte at a time: the vector api has no way to load from them
+     * that is the same on every supported release, and copying out to scan would cost as much as the scan.
+     */
+    @Override
+    protected int quote(int index) {
+        if (!buffer.hasArray()) return super.quote(index);
+        final int offset = buffer.arrayOffset();
+        return Scanner.INSTANCE.quote(buffer.array(), offset + index, offset + limit) - offset;
+    }
+
+    @Override
+    protected int whitespace(int index) {
+        if (!buffer.hasArray()) return super.whitespace(index);
+        final int offset = buffer.arrayOffset();
+        return Scanner.INSTANCE.whitespace(buffer.array(), offset + index, offset + limit) - offset;
+    }
+
+    @Override
+    protected int structure(int index) {
+        if (!buffer.hasArray()) return super.structure(index);
+        final int offset = buffer.arrayOffset();
+        return Scanner.INSTANCE.structure(buffer.array(), offset + index, offset + limit) - offset;
+    }
+
+    @Override
+    JsonTape.Source remaining() {
+        if (low != 0) return super.remaining();
+        final JsonTape.Source source = new JsonTape.Bytes(buffer, position, limit);
+        this.position = limit;
+        return source;
+    }
+
+    @Override
+    public void close() {
+    }
+
+}
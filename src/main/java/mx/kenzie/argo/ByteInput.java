@@ -0,0 +1,114 @@
+package mx.kenzie.argo;
+
+import mx.kenzie.argo.meta.JsonException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+class ByteInput extends Utf8Input {
+
+    protected InputStream stream;
+    protected byte[] buffer;
+
+    ByteInput(InputStream stream) {
+        this.stream = stream;
+        this.buffer = new byte[8192];
+    }
+
+    ByteInput(byte[] bytes) {
+        this(bytes, 0, bytes.length);
+    }
+
+    ByteInput(byte[] bytes, int offset, int length) {
+        this.stream = null;
+        this.buffer = bytes;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    /**
+     * Moves this onto a new stream, keeping the buffer.
+     */
+    ByteInput reuse(InputStream stream) {
+        this.stream = stream;
+        this.position = limit = 0;
+        this.mark = -1;
+        this.low = 0;
+        return this;
+    }
+
+    @Override
+    protected boolean fill() {
+        if (stream == null) return false;
+        if (mark >= 0 && position - mark > markLimit) mark = -1;
+        final int keep = mark >= 0 ? mark : position;
+        if (keep > 0) {
+            System.arraycopy(buffer, keep, buffer, 0, limit - keep);
+            this.limit -= keep;
+            this.position -= keep;
+            if (mark >= 0) this.mark -= keep;
+        }
+        if (limit == buffer.length) this.buffer = Arrays.copyOf(buffer, buffer.length << 1);
+        try {
+            int read;
+            do read = stream.read(buffer, limit, buffer.length - limit); while (read == 0);
+            if (read < 0) return false;
+            this.limit += read;
+            return true;
+        } catch (IOException ex) {
+            throw new JsonException(ex);
+        }
+    }
+
+    @Override
+    int at(int index) {
+        return buffer[index];
+    }
+
+    @Override
+    String string(int start, int end) {
+        return new String(buffer, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    String symbol(SymbolTable symbols, int start, int length, int hash) {
+        return symbols.get(buffer, start, length, hash);
+    }
+
+    @Override
+    protected int quote(int index) {
+        return Scanner.INSTANCE.quote(buffer, index, limit);
+    }
+
+    @Override
+    protected int whitespace(int index) {
+        return Scanner.INSTANCE.whitespace(buffer, index, limit);
+    }
+
+    @Override
+    protected int structure(int index) {
+        return Scanner.INSTANCE.structure(buffer, index, limit);
+    }
+
+    @Override
+    JsonTape.Source remaining() {
+        if (stream != null || low != 0) return super.remaining();
+        final JsonTape.Source source = new JsonTape.Bytes(ByteBuffer.wrap(buffer), position, limit);
+        this.position = limit;
+        return source;
+    }
+
+    @Override
+    public void close() {
+        if (stream == null) return;
+        try {
+            this.stream.close();
+        } catch (IOException ex) {
+            throw new JsonException(ex);
+        }
+    }
+
+}
@@ -0,0 +1,172 @@
+package mx.kenzie.argo;
+
+import mx.kenzie.argo.meta.JsonException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes UTF-8 straight into a byte buffer, which is drained in blocks to a stream
+ * or to a caller's (possibly direct) byte buffer. Runs of ASCII are copied without encoding.
+ */
+class ByteOutput extends JsonOutput {
+
+    protected OutputStream stream;
+    protected final ByteBuffer target;
+    protected final byte[] buffer;
+    protected int position;
+    protected char high;
+
+    ByteOutput(OutputStream stream) {
+        this(stream, null, 8192);
+    }
+
+    ByteOutput(ByteBuffer target) {
+        this(null, target, 1024);
+    }
+
+    private ByteOutput(OutputStream stream, ByteBuffer target, int size) {
+        this.stream = stream;
+        this.target = target;
+        this.buffer = new byte[size];
+    }
+
+    /**
+     * Moves this onto a new stream, keeping the buffer. Anything not yet drained is dropped.
+     */
+    ByteOutput reuse(OutputStream stream) {
+        this.stream = stream;
+        this.position = 0;
+        this.high = 0;
+        return this;
+    }
+
+    protected void drain() {
+        if (position == 0) return;
+        try {
+            if (target != null) this.target.put(buffer, 0, position);
+            else this.stream.write(buffer, 0, position);
+        } catch (IOException ex) {
+            throw new JsonException(ex);
+        } catch (BufferOverflowException ex) {
+            throw new JsonException("The output buffer is full.", ex);
+        }
+        this.position = 0;
+    }
+
+    /**
+     * Encodes a single non-ASCII char, pairing surrogates across calls.
+     * Unpaired surrogates become '?', as the charset encoder would write them.
+     */
+    private void encode(char c) {
+        if (buffer.length - position < 4) this.drain();
+        if (high != 0) {
+            final char previous = high;
+            this.high = 0;
+            if (Character.isLowSurrogate(c)) {
+                final int point = Character.toCodePoint(previous, c);
+                this.buffer[position++] = (byte) (0xF0 | point >> 18);
+                this.buffer[position++] = (byte) (0x80 | point >> 12 & 0x3F);
+                this.buffer[position++] = (byte) (0x80 | point >> 6 & 0x3F);
+                this.buffer[position++] = (byte) (0x80 | point & 0x3F);
+                return;
+            }
+            this.buffer[position++] = '?';
+            if (c < 0x80) {
+                this.buffer[position++] = (byte) c;
+                return;
+            }
+        }
+        if (c < 0x800) {
+            this.buffer[position++] = (byte) (0xC0 | c >> 6);
+            this.buffer[position++] = (byte) (0x80 | c & 0x3F);
+        } else if (Character.isHighSurrogate(c)) this.high = c;
+        else if (Character.isLowSurrogate(c)) this.buffer[position++] = '?';
+        else {
+            this.buffer[position++] = (byte) (0xE0 | c >> 12);
+            this.buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+            this.buffer[position++] = (byte) (0x80 | c & 0x3F);
+        }
+    }
+
+    @Override
+    void write(char c) {
+        if (c >= 0x80 || high != 0) this.encode(c);
+        else {
+            if (position == buffer.length) this.drain();
+            this.buffer[position++] = (byte) c;
+        }
+    }
+
+    @Override
+    void write(String string) {
+        this.write(string, 0, string.length());
+    }
+
+    @Override
+    void write(String string, int offset, int length) {
+        final int end = offset + length;
+        int index = offset;
+        while (index < end) {
+            if (high == 0) {
+                final int stop = Math.min(end, index + buffer.length - position);
+                char c;
+                while (index < stop && (c = string.charAt(index)) < 0x80) {
+                    this.buffer[position++] = (byte) c;
+                    index++;
+                }
+                if (index == end) return;
+                if (position == buffer.length) {
+                    this.drain();
+                    continue;
+                }
+            }
+            this.encode(string.charAt(index++));
+        }
+    }
+
+    @Override
+    void write(char[] chars, int offset, int length) {
+        final int end = offset + length;
+        int index = offset;
+        while (index < end) {
+            if (high == 0) {
+                final int stop = Math.min(end, index + buffer.length - position);
+                char c;
+                while (index < stop && (c = chars[index]) < 0x80) {
+                    this.buffer[position++] = (byte) c;
+                    index++;
+                }
+                if (index == end) return;
+                if (position == buffer.length) {
+                    this.drain();
+                    continue;
+                }
+            }
+            this.encode(chars[index++]);
+        }
+    }
+
+    @Override
+    public void flush() {
+        this.drain();
+        if (stream != null) try {
+            this.stream.flush();
+        } catch (IOException ex) {
+            throw new JsonException(ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        this.drain();
+        if (stream != null) try {
+            this.stream.close();
+        } catch (IOException ex) {
+            throw new JsonException(ex);
+        }
+    }
+
+}
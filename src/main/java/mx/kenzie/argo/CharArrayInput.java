@@ -0,0 +1,58 @@
+package mx.kenzie.argo;
+
+import java.nio.CharBuffer;
+
+class CharArrayInput extends JsonInput {
+
+    protected char[] buffer;
+
+    CharArrayInput(char[] array, int offset, int length) {
+        this.buffer = array;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    @Override
+    int read() {
+        if (position >= limit && !this.fill()) return -1;
+        return buffer[position++];
+    }
+
+    @Override
+    int peek() {
+        if (position >= limit && !this.fill()) return -1;
+        return buffer[position];
+    }
+
+    @Override
+    int at(int index) {
+        return buffer[index];
+    }
+
+    @Override
+    String string(int start, int end) {
+        return new String(buffer, start, end - start);
+    }
+
+    @Override
+    void append(StringBuilder builder, int start, int end) {
+        builder.append(buffer, start, end - start);
+    }
+
+    @Override
+    String symbol(SymbolTable symbols, int start, int length, int hash) {
+        return symbols.get(buffer, start, length, hash);
+    }
+
+    @Override
+    JsonTape.Source remaining() {
+        final JsonTape.Source source = new JsonTape.Chars(CharBuffer.wrap(buffer), position, limit);
+        this.position = limit;
+        return source;
+    }
+
+    @Override
+    public void close() {
+    }
+
+}
@@ -0,0 +1,537 @@
+package mx.kenzie.argo;
+
+import mx.kenzie.argo.meta.JsonException;
+import mx.kenzie.argo.meta.Present;
+import mx.kenzie.grammar.Any;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The resolved layout of one class: its fields with their var handles, pre-encoded keys and annotation flags.
+ * This is built the first time a class is seen and shared by every {@link Json}, {@link JsonObject}
+ * and {@link JsonArray} after that, so reflection is only paid once per class.
+ */
+final class Codec {
+
+    private static final ClassValue<Codec> CODECS = new ClassValue<>() {
+        @Override
+        protected Codec computeValue(Class<?> type) {
+            return new Codec(type);
+        }
+    };
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class),
+        CONSTRUCTOR = MethodType.methodType(Object.class, Object[].class);
+
+    final Class<?> type;
+    final Property[] properties;
+    final Map<String, Property> lookup;
+    final MethodHandle data, constructor;
+    final Class<?>[] parameters;
+    final String[] names;
+
+    private Codec(Class<?> type) {
+        this.type = type;
+        final List<Property> list = new ArrayList<>();
+        MethodHandle data = null;
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            for (final Field field : type.getDeclaredFields()) {
+                final int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || field.isSynthetic()) continue;
+                field.setAccessible(true);
+                if (field.getName().equals("__data") && Map.class.isAssignableFrom(field.getType())) {
+                    data = setter(lookup, field);
+                    continue;
+                }
+                if (Modifier.isTransient(modifiers)) continue;
+                final MethodHandle setter = Modifier.isFinal(modifiers) ? setter(lookup, field) : null;
+                list.add(new Property(field, lookup.unreflectVarHandle(field), setter, list.size()));
+            }
+            if (type.isRecord()) {
+                final RecordComponent[] components = type.getRecordComponents();
+                this.parameters = new Class<?>[components.length];
+                this.names = new String[components.length];
+                for (int i = 0; i < components.length; i++) {
+                    this.parameters[i] = components[i].getType();
+                    this.names[i] = components[i].getName();
+                }
+                final Constructor<?> constructor = type.getDeclaredConstructor(parameters);
+                this.constructor = lookup.unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, parameters.length).asType(CONSTRUCTOR);
+            } else {
+                this.parameters = null;
+                this.names = null;
+                this.constructor = null;
+            }
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            throw new JsonException("Unable to access the fields of " + type.getName(), ex);
+        }
+        this.properties = list.toArray(new Property[0]);
+        this.lookup = new HashMap<>();
+        for (final Property property : properties) this.lookup.put(property.name, property);
+        this.data = data;
+    }
+
+    static Codec of(Class<?> type) {
+        return CODECS.get(type);
+    }
+
+    /**
+     * Final fields only have read-only var handles, so they are written through a method handle
+     * (which is allowed once the field is accessible, except in records).
+     */
+    private static MethodHandle setter(MethodHandles.Lookup lookup, Field field) {
+        try {
+            return lookup.unreflectSetter(field).asType(SETTER);
+        } catch (IllegalAccessException ex) {
+            return null;
+        }
+    }
+
+    static RuntimeException rethrow(Throwable throwable) {
+        if (throwable instanceof RuntimeException ex) return ex;
+        if (throwable instanceof Error error) throw error;
+        return new JsonException(throwable);
+    }
+
+    <Container extends Map<String, Object>> Container marshal(Json json, Object object, Container container) {
+        for (final Property property : properties) {
+            final Object value = property.get(object);
+            final Class<?> type = property.any && value != null ? value.getClass() : property.type;
+            container.put(property.name, deconstruct(json, value, type, property.any));
+        }
+        return container;
+    }
+
+    <Type> Type unmarshal(Json json, Type object, Map<?, ?> container) {
+        if (data != null) set(data, object, container);
+        for (final Property property : properties) {
+            final Object value = container.get(property.name);
+            if (value == null && !container.containsKey(property.name)) continue;
+            if (value instanceof Map<?, ?> map) {
+                final Object existing = property.get(object);
+                if (existing != null && !(existing instanceof Map)) {
+                    Codec.of(existing.getClass()).unmarshal(json, existing, map);
+                    continue;
+                }
+            }
+            property.set(object, json.construct(value, property.type));
+        }
+        return object;
+    }
+
+    @SuppressWarnings("unchecked")
+    <Type> Type create(Json json, Map<?, ?> container) {
+        if (constructor == null) return this.unmarshal(json, json.createObject((Class<Type>) type), container);
+        final Object[] arguments = new Object[parameters.length];
+        for (int i = 0; i < arguments.length; i++) arguments[i] = json.construct(container.get(names[i]), parameters[i]);
+        try {
+            return (Type) (Object) constructor.invokeExact(arguments);
+        } catch (Throwable ex) {
+            throw rethrow(ex);
+        }
+    }
+
+    /**
+     * Reads the rest of an object straight into the fields, without an intermediate map.
+     */
+    <Type> Type read(Json json, Type object, JsonObject reader) {
+        if (data != null) return this.unmarshal(json, object, reader.readMap());
+        String key;
+        while ((key = reader.readKey()) != null) {
+            final Property property = lookup.get(key);
+            final char initial = reader.readInitial();
+            if (property == null) json.input.skipValue(initial);
+            else property.read(json, object, initial);
+        }
+        return object;
+    }
+
+    @SuppressWarnings("unchecked")
+    <Type> Type create(Json json, JsonObject reader) {
+        if (constructor == null) return this.read(json, json.createObject((Class<Type>) type), reader);
+        if (data != null) return this.create(json, reader.readMap());
+        final Object[] arguments = new Object[parameters.length];
+        String key;
+        while ((key = reader.readKey()) != null) {
+            final Property property = lookup.get(key);
+            final char initial = reader.readInitial();
+            if (property == null) json.input.skipValue(initial);
+            else arguments[property.index] = read(json, initial, parameters[property.index]);
+        }
+        for (int i = 0; i < arguments.length; i++)
+            if (arguments[i] == null && parameters[i].isPrimitive()) arguments[i] = json.construct(null, parameters[i]);
+        try {
+            return (Type) (Object) constructor.invokeExact(arguments);
+        } catch (Throwable ex) {
+            throw rethrow(ex);
+        }
+    }
+
+    /**
+     * Reads a value of the expected type, binding objects and arrays directly.
+     * The initial character has already been consumed.
+     */
+    static Object read(Json json, char initial, Class<?> type) {
+        if (initial == '{' && !Map.class.isAssignableFrom(type) && type != Object.class) {
+            try (JsonObject object = new JsonObject(json, true)) {
+                return Codec.of(type).create(json, object);
+            }
+        }
+        if (initial == '[' && type.isArray()) return readArray(json, type);
+        return json.construct(Json.read(initial, json), type);
+    }
+
+    static Object readArray(Json json, Class<?> type) {
+        try (JsonArray array = new JsonArray(json, true)) {
+            return readElements(json, array, type.getComponentType());
+        }
+    }
+
+    /**
+     * Reads the remaining elements into an array of exactly their number.
+     * Primitive and string elements are parsed straight into a growing array of the component type.
+     */
+    static Object readElements(Json json, JsonArray array, Class<?> component) {
+        int size = 0;
+        if (component == int.class) {
+            int[] result = new int[16];
+            while (array.hasNext()) {
+                if (size == result.length) result = Arrays.copyOf(result, size << 1);
+                final char initial = json.readChar();
+                result[size++] = numeric(initial) ? readInt(json, initial) : number(json, initial, component).intValue();
+            }
+            return Arrays.copyOf(result, size);
+        } else if (component == long.class) {
+            long[] result = new long[16];
+            while (array.hasNext()) {
+                if (size == result.length) result = Arrays.copyOf(result, size << 1);
+                final char initial = json.readChar();
+                result[size++] = numeric(initial) ? readLong(json, initial) : number(json, initial, component).longValue();
+            }
+            return Arrays.copyOf(result, size);
+        } else if (component == double.class) {
+            double[] result = new double[16];
+            while (array.hasNext()) {
+                if (size == result.length) result = Arrays.copyOf(result, size << 1);
+                final char initial = json.readChar();
+                result[size++] = numeric(initial) ? readDouble(json, initial) : number(json, initial, component).doubleValue();
+            }
+            return Arrays.copyOf(result, size);
+        } else if (component == float.class) {
+            float[] result = new float[16];
+            while (array.hasNext()) {
+                if (size == result.length) result = Arrays.copyOf(result, size << 1);
+                final char initial = json.readChar();
+                result[size++] = numeric(initial) ? (float) readDouble(json, initial) : number(json, initial, component).floatValue();
+            }
+            return Arrays.copyOf(result, size);
+        } else if (component == boolean.class) {
+            boolean[] result = new boolean[16];
+            while (array.hasNext()) {
+                if (size == result.length) result = Arrays.copyOf(result, size << 1);
+                final char initial = json.readChar();
+                if (initial == 't' || initial == 'f') {
+                    json.input.literal(initial == 't' ? "true" : "false");
+                    result[size++] = initial == 't';
+                } else if (json.construct(Json.read(initial, json), component) instanceof Boolean value)
+                    result[size++] = value;
+                else throw new JsonException("Expected a boolean in the array.");
+            }
+            return Arrays.copyOf(result, size);
+        } else if (component == String.class) {
+            String[] result = new String[16];
+            while (array.hasNext()) {
+                if (size == result.length) result = Arrays.copyOf(result, size << 1);
+                final char initial = json.readChar();
+                if (initial == '"') result[size++] = json.input.readString(json.scratch);
+                else {
+                    final Object value = json.construct(Json.read(initial, json), component);
+                    if (value != null && !(value instanceof String)) throw new JsonException("Expected a string in the array.");
+                    result[size++] = (String) value;
+                }
+            }
+            return Arrays.copyOf(result, size);
+        }
+        final List<Object> list = new ArrayList<>();
+        while (array.hasNext()) list.add(read(json, json.readChar(), component));
+        final Object result = Array.newInstance(component, list.size());
+        for (int i = 0; i < list.size(); i++) Array.set(result, i, list.get(i));
+        return result;
+    }
+
+    private static Number number(Json json, char initial, Class<?> type) {
+        if (json.construct(Json.read(initial, json), type) instanceof Number number) return number;
+        throw new JsonException("Expected a number in the array.");
+    }
+
+    private static boolean numeric(char initial) {
+        return initial >= '0' && initial <= '9' || initial == '-';
+    }
+
+    private static long readLong(Json json, char initial) {
+        final long value = NumberParser.readLong(initial, json.input, json.scratch);
+        if (value != NumberParser.SLOW) return value;
+        return NumberParser.convert(json.scratch, json.numbers).longValue();
+    }
+
+    private static int readInt(Json json, char initial) {
+        final long value = NumberParser.readLong(initial, json.input, json.scratch);
+        if (value != NumberParser.SLOW) return (int) value;
+        return NumberParser.convert(json.scratch, json.numbers).intValue();
+    }
+
+    private static double readDouble(Json json, char initial) {
+        if (json.numbers == Json.Numbers.STANDARD) return NumberParser.readDouble(initial, json.input, json.scratch);
+        return Json.readNumber(initial, json).doubleValue();
+    }
+
+    /**
+     * Writes the fields of the object straight to the output, without an intermediate map.
+     */
+    void write(Json json, Object object, JsonObject writer) {
+        for (final Property property : properties) {
+            writer.writeEncodedKey(property.key);
+            property.write(json, object);
+        }
+    }
+
+    /**
+     * Writes a field value the way {@link #deconstruct(Json, Object, Class, boolean)} would convert it.
+     */
+    static void write(Json json, Object value, Class<?> type, boolean any) {
+        if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean
+            || value instanceof Map || value instanceof List) Json.write(value, json);
+        else if (value instanceof Character character) json.writeQuoted(character.toString());
+        else if (value instanceof Enum<?> constant) json.writeQuoted(constant.name());
+        else if (value instanceof JsonData data) data.write(json);
+        else if (value.getClass().isArray()) writeArray(json, value, any);
+        else try (JsonObject writer = new JsonObject(json)) {
+                Codec.of(any ? value.getClass() : type).write(json, value, writer);
+            }
+    }
+
+    static void writeArray(Json json, Object array, boolean any) {
+        final Class<?> component = array.getClass().getComponentType();
+        final JsonOutput output = json.output;
+        try (JsonArray writer = new JsonArray(json)) {
+            if (component == int.class) for (final int value : (int[]) array) {
+                writer.next();
+                output.writeLong(value);
+            }
+            else if (component == long.class) for (final long value : (long[]) array) {
+                writer.next();
+                output.writeLong(value);
+            }
+            else if (component == double.class) for (final double value : (double[]) array) {
+                writer.next();
+                DoubleFormatter.write(value, output);
+            }
+            else for (int i = 0, length = Array.getLength(array); i < length; i++) {
+                    final Object value = Array.get(array, i);
+                    writer.next();
+                    write(json, value, any && value != null ? value.getClass() : component, any);
+                }
+        }
+    }
+
+    static Object deconstruct(Json json, Object value, Class<?> type, boolean any) {
+        if (value == null) return null;
+        if (value instanceof String || value instanceof Number || value instanceof Boolean) return value;
+        if (value instanceof Character character) return character.toString();
+        if (value instanceof Enum<?> constant) return constant.name();
+        if (value instanceof Map || value instanceof List) return value;
+        final Class<?> actual = value.getClass();
+        if (actual.isArray()) {
+            final Class<?> component = actual.getComponentType();
+            final int length = Array.getLength(value);
+            final List<Object> list = new ArrayList<>(length);
+            for (int i = 0; i < length; i++) {
+                final Object element = Array.get(value, i);
+                list.add(deconstruct(json, element, any && element != null ? element.getClass() : component, any));
+            }
+            return list;
+        }
+        return Codec.of(any ? actual : type).marshal(json, value, new LinkedHashMap<>());
+    }
+
+    private static void set(MethodHandle setter, Object object, Object value) {
+        try {
+            setter.invokeExact(object, value);
+        } catch (Throwable ex) {
+            throw rethrow(ex);
+        }
+    }
+
+    enum Kind {
+        BOOLEAN, BYTE, SHORT, CHAR, INT, LONG, FLOAT, DOUBLE, STRING, OBJECT;
+
+        static Kind of(Class<?> type) {
+            if (type == int.class) return INT;
+            if (type == long.class) return LONG;
+            if (type == double.class) return DOUBLE;
+            if (type == boolean.class) return BOOLEAN;
+            if (type == float.class) return FLOAT;
+            if (type == short.class) return SHORT;
+            if (type == byte.class) return BYTE;
+            if (type == char.class) return CHAR;
+            if (type == String.class) return STRING;
+            return OBJECT;
+        }
+
+    }
+
+    static final class Property {
+
+        final String name, key;
+        final Class<?> type;
+        final Kind kind;
+        final boolean any, present, writable;
+        final int index;
+        final VarHandle handle;
+        final MethodHandle setter;
+
+        Property(Field field, VarHandle handle, MethodHandle setter, int index) {
+            this.name = field.getName();
+            final StringOutput output = new StringOutput();
+            output.writeQuoted(name, false);
+            this.key = output.builder.append(": ").toString();
+            this.type = field.getType();
+            this.kind = Kind.of(type);
+            this.any = field.isAnnotationPresent(Any.class);
+            this.present = field.isAnnotationPresent(Present.class);
+            this.writable = !Modifier.isFinal(field.getModifiers());
+            this.handle = handle;
+            this.setter = setter;
+            this.index = index;
+        }
+
+        Object get(Object object) {
+            return handle.get(object);
+        }
+
+        void set(Object object, Object value) {
+            if (writable) handle.set(object, value);
+            else if (setter != null) Codec.set(setter, object, value);
+            else throw new JsonException("Unable to write to the final field '" + name + "'.");
+        }
+
+        /**
+         * Writes the field's value, primitives without boxing.
+         */
+        void write(Json json, Object object) {
+            final JsonOutput output = json.output;
+            switch (kind) {
+                case INT -> output.writeLong((int) handle.get(object));
+                case LONG -> output.writeLong((long) handle.get(object));
+                case SHORT -> output.writeLong((short) handle.get(object));
+                case BYTE -> output.writeLong((byte) handle.get(object));
+                case DOUBLE -> DoubleFormatter.write((double) handle.get(object), output);
+                case FLOAT -> DoubleFormatter.write((float) handle.get(object), output);
+                case BOOLEAN -> output.write((boolean) handle.get(object) ? "true" : "false");
+                case CHAR -> json.writeQuoted(String.valueOf((char) handle.get(object)));
+                case STRING -> {
+                    final String string = (String) handle.get(object);
+                    if (string == null) output.write("null");
+                    else json.writeQuoted(string);
+                }
+                default -> {
+                    final Object result = handle.get(object);
+                    Codec.write(json, result, any && result != null ? result.getClass() : type, any);
+                }
+            }
+        }
+
+        /**
+         * Parses the value into the field, primitives without boxing.
+         */
+        void read(Json json, Object object, char initial) {
+            if (writable) switch (kind) {
+                case INT -> {
+                    if (numeric(initial)) {
+                        handle.set(object, readInt(json, initial));
+                        return;
+                    }
+                }
+                case LONG -> {
+                    if (numeric(initial)) {
+                        handle.set(object, readLong(json, initial));
+                        return;
+                    }
+                }
+                case DOUBLE -> {
+                    if (numeric(initial)) {
+                        handle.set(object, readDouble(json, initial));
+                        return;
+                    }
+                }
+                case FLOAT -> {
+                    if (numeric(initial)) {
+                        handle.set(object, (float) readDouble(json, initial));
+                        return;
+                    }
+                }
+                case SHORT -> {
+                    if (numeric(initial)) {
+                        handle.set(object, (short) readInt(json, initial));
+                        return;
+                    }
+                }
+                case BYTE -> {
+                    if (numeric(initial)) {
+                        handle.set(object, (byte) readInt(json, initial));
+                        return;
+                    }
+                }
+                case BOOLEAN -> {
+                    if (initial == 't' || initial == 'f') {
+                        json.input.literal(initial == 't' ? "true" : "false");
+                        handle.set(object, initial == 't');
+                        return;
+                    }
+                }
+                case CHAR -> {
+                    if (initial == '"') {
+                        final String string = json.input.readString(json.scratch);
+                        handle.set(object, string.isEmpty() ? (char) 0 : string.charAt(0));
+                        return;
+                    }
+                }
+                case STRING -> {
+                    if (initial == '"') {
+                        handle.set(object, json.input.readString(json.scratch));
+                        return;
+                    }
+                }
+            }
+            if (kind == Kind.OBJECT) {
+                if (initial == '{') {
+                    final Object existing = this.get(object);
+                    if (existing != null && !(existing instanceof Map)) {
+                        try (JsonObject reader = new JsonObject(json, true)) {
+                            Codec.of(existing.getClass()).read(json, existing, reader);
+                        }
+                        return;
+                    }
+                }
+                this.set(object, Codec.read(json, initial, type));
+            } else this.set(object, json.construct(Json.read(initial, json), type));
+        }
+
+    }
+
+}
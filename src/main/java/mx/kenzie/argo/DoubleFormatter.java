@@ -0,0 +1,222 @@
+package mx.kenzie.argo;
+
+import java.math.BigInteger;
+
+/**
+ * Writes the shortest decimal that reads back as the same double (or float), using
+ * Raffaello Giulietti's Schubfach algorithm. Numbers are written in plain notation.
+ * This holds no state, so it is safe to share between threads.
+ */
+final class DoubleFormatter {
+
+    private static final int K_MIN = -324, K_MAX = 292;
+    private static final long MASK_63 = 0x7FFF_FFFF_FFFF_FFFFL, MASK_32 = 0xFFFF_FFFFL;
+    private static final int DOUBLE_P = 53, DOUBLE_Q_MIN = -1074, DOUBLE_C_TINY = 3;
+    private static final long DOUBLE_C_MIN = 1L << 52;
+    private static final int FLOAT_P = 24, FLOAT_Q_MIN = -149, FLOAT_C_TINY = 8, FLOAT_C_MIN = 1 << 23;
+    private static final char[] ZEROS = "00000000000000000000000000000000".toCharArray();
+    private static final long[] G = new long[(K_MAX - K_MIN + 1) << 1];
+
+    static {
+        // 10^-k = b 2^r with 2^125 <= b < 2^126, stored as the two 63-bit halves of floor(b) + 1
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            final BigInteger g;
+            if (k <= 0) {
+                final BigInteger power = BigInteger.TEN.pow(-k);
+                final int shift = power.bitLength() - 126;
+                g = shift >= 0 ? power.shiftRight(shift) : power.shiftLeft(-shift);
+            } else {
+                final BigInteger power = BigInteger.TEN.pow(k);
+                g = BigInteger.ONE.shiftLeft(power.bitLength() + 125).divide(power);
+            }
+            final BigInteger result = g.add(BigInteger.ONE);
+            final int index = k - K_MIN << 1;
+            G[index] = result.shiftRight(63).longValue();
+            G[index + 1] = result.longValue() & MASK_63;
+        }
+    }
+
+    private DoubleFormatter() {
+    }
+
+    static void write(double value, JsonOutput output) {
+        final long bits = Double.doubleToRawLongBits(value);
+        final long t = bits & DOUBLE_C_MIN - 1;
+        final int bq = (int) (bits >>> DOUBLE_P - 1) & 0x7FF;
+        if (bq == 0x7FF) {
+            output.write(t != 0 ? "NaN" : bits > 0 ? "Infinity" : "-Infinity");
+            return;
+        }
+        if (bits < 0) output.write('-');
+        if (bq != 0) {
+            final int mq = -DOUBLE_Q_MIN + 1 - bq;
+            final long c = DOUBLE_C_MIN | t;
+            if (0 < mq & mq < DOUBLE_P) {
+                final long f = c >> mq;
+                if (f << mq == c) {
+                    write(f, 0, output);
+                    return;
+                }
+            }
+            toDecimal(-mq, c, 0, output);
+        } else if (t != 0) {
+            if (t < DOUBLE_C_TINY) toDecimal(DOUBLE_Q_MIN, 10 * t, -1, output);
+            else toDecimal(DOUBLE_Q_MIN, t, 0, output);
+        } else output.write('0');
+    }
+
+    static void write(float value, JsonOutput output) {
+        final int bits = Float.floatToRawIntBits(value);
+        final int t = bits & FLOAT_C_MIN - 1;
+        final int bq = bits >>> FLOAT_P - 1 & 0xFF;
+        if (bq == 0xFF) {
+            output.write(t != 0 ? "NaN" : bits > 0 ? "Infinity" : "-Infinity");
+            return;
+        }
+        if (bits < 0) output.write('-');
+        if (bq != 0) {
+            final int mq = -FLOAT_Q_MIN + 1 - bq;
+            final int c = FLOAT_C_MIN | t;
+            if (0 < mq & mq < FLOAT_P) {
+                final int f = c >> mq;
+                if (f << mq == c) {
+                    write(f, 0, output);
+                    return;
+                }
+            }
+            toDecimal(-mq, c, 0, output);
+        } else if (t != 0) {
+            if (t < FLOAT_C_TINY) toDecimal(FLOAT_Q_MIN, 10 * t, -1, output);
+            else toDecimal(FLOAT_Q_MIN, t, 0, output);
+        } else output.write('0');
+    }
+
+    private static void toDecimal(int q, long c, int dk, JsonOutput output) {
+        final int out = (int) c & 0x1;
+        final long cb = c << 2, cbr = cb + 2, cbl;
+        final int k;
+        if (c != DOUBLE_C_MIN | q == DOUBLE_Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        final int h = q + flog2pow10(-k) + 2;
+        final long g1 = G[k - K_MIN << 1], g0 = G[(k - K_MIN << 1) + 1];
+        final long vb = rop(g1, g0, cb << h), vbl = rop(g1, g0, cbl << h), vbr = rop(g1, g0, cbr << h);
+        final long s = vb >> 2;
+        if (s >= 100) {
+            final long sp10 = 10 * Math.multiplyHigh(s, 115_292_150_460_684_698L << 4), tp10 = sp10 + 10;
+            final boolean upin = vbl + out <= sp10 << 2, wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                write(upin ? sp10 : tp10, k, output);
+                return;
+            }
+        }
+        final long t = s + 1;
+        final boolean uin = vbl + out <= s << 2, win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            write(uin ? s : t, k + dk, output);
+            return;
+        }
+        final long cmp = vb - (s + t << 1);
+        write(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk, output);
+    }
+
+    private static void toDecimal(int q, int c, int dk, JsonOutput output) {
+        final int out = c & 0x1;
+        final long cb = (long) c << 2, cbr = cb + 2, cbl;
+        final int k;
+        if (c != FLOAT_C_MIN | q == FLOAT_Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        final int h = q + flog2pow10(-k) + 33;
+        final long g = G[k - K_MIN << 1] + 1;
+        final int vb = rop(g, cb << h), vbl = rop(g, cbl << h), vbr = rop(g, cbr << h);
+        final int s = vb >> 2;
+        if (s >= 100) {
+            final int sp10 = 10 * (int) (s * 1_717_986_919L >>> 34), tp10 = sp10 + 10;
+            final boolean upin = vbl + out <= sp10 << 2, wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                write(upin ? sp10 : tp10, k, output);
+                return;
+            }
+        }
+        final int t = s + 1;
+        final boolean uin = vbl + out <= s << 2, win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            write(uin ? s : t, k + dk, output);
+            return;
+        }
+        final int cmp = vb - (s + t << 1);
+        write(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk, output);
+    }
+
+    private static long rop(long g1, long g0, long cp) {
+        final long x1 = Math.multiplyHigh(g0, cp), y0 = g1 * cp, y1 = Math.multiplyHigh(g1, cp);
+        final long z = (y0 >>> 1) + x1, vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    private static int rop(long g, long cp) {
+        final long x1 = Math.multiplyHigh(g, cp), vbp = x1 >>> 31;
+        return (int) (vbp | (x1 & MASK_32) + MASK_32 >>> 32);
+    }
+
+    private static int flog10pow2(int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    private static int flog10threeQuartersPow2(int e) {
+        return (int) (e * 661_971_961_083L + -274_743_187_321L >> 41);
+    }
+
+    private static int flog2pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+    /**
+     * Writes f * 10^e in plain notation, without an exponent or trailing zeros after the point.
+     */
+    private static void write(long f, int e, JsonOutput output) {
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+        final char[] digits = output.digits;
+        int index = digits.length;
+        do {
+            digits[--index] = (char) ('0' + f % 10);
+            f /= 10;
+        } while (f != 0);
+        final int length = digits.length - index;
+        if (e >= 0) {
+            output.write(digits, index, length);
+            zeros(e, output);
+        } else if (length + e > 0) {
+            final int point = length + e;
+            output.write(digits, index, point);
+            output.write('.');
+            output.write(digits, index + point, -e);
+        } else {
+            output.write('0');
+            output.write('.');
+            zeros(-e - length, output);
+            output.write(digits, index, length);
+        }
+    }
+
+    private static void zeros(int count, JsonOutput output) {
+        while (count > 0) {
+            final int chunk = Math.min(count, ZEROS.length);
+            output.write(ZEROS, 0, chunk);
+            count -= chunk;
+        }
+    }
+
+}
@@ -6,11 +6,13 @@ import org.jetbrains.annotations.Contract;
 
 import java.io.*;
 import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
@@ -18,6 +20,7 @@ import java.util.regex.Pattern;
 public class Json extends Grammar implements Closeable, AutoCloseable {
 
     protected static final Pattern CODE_POINT = Pattern.compile("\\\\u\\w{4}");
+    private static final ThreadLocal<Json> SPARE = new ThreadLocal<>();
     static final byte
         START = 0,
         EXPECTING_KEY = 1,
@@ -26,49 +29,195 @@ public class Json extends Grammar implements Closeable, AutoCloseable {
         EXPECTING_VALUE = 4,
         EXPECTING_END = 5,
         END = -1;
-    static final DecimalFormat FORMAT = new DecimalFormat("0", DecimalFormatSymbols.getInstance(Locale.ENGLISH));
-
-    static {
-        FORMAT.setMaximumFractionDigits(340);
-    }
-
     protected transient java.io.Reader reader;
     protected transient Writer writer;
     protected int state = START;
-    protected WriteController controller = new WriteController(null);
+    private transient final WriteController plain = new WriteController(null);
+    protected WriteController controller = plain;
+    transient JsonInput input;
+    transient JsonOutput output;
+    protected Flush flush = Flush.VALUE;
+    protected boolean escapeUnicode = true;
+    protected Numbers numbers = Numbers.STANDARD;
+    protected transient SymbolTable symbols = new SymbolTable();
+    transient final StringBuilder scratch = new StringBuilder();
+    private transient StringOutput strings;
+
+    Json() {
+    }
 
     public Json(java.io.Reader reader) {
         this.reader = reader;
+        this.input = new ReaderInput(reader);
     }
 
     public Json(String string) {
         this(string, StandardCharsets.UTF_8);
     }
 
+    /**
+     * Reads the string as it would come through the charset: characters the charset cannot encode
+     * become its replacement character. A UTF-8 string is read in place.
+     */
     public Json(String string, Charset charset) {
-        this(new ByteArrayInputStream(string.getBytes(charset)));
+        if (charset.equals(StandardCharsets.UTF_8)) this.input = new StringInput(string);
+        else this.input = new StringInput(new String(string.getBytes(charset), charset));
+    }
+
+    public Json(CharSequence sequence) {
+        this.input = new StringInput(sequence);
+    }
+
+    public Json(CharSequence sequence, int offset, int length) {
+        this.input = new StringInput(sequence, offset, length);
+    }
+
+    public Json(char[] chars) {
+        this(chars, 0, chars.length);
+    }
+
+    public Json(char[] chars, int offset, int length) {
+        this.input = new CharArrayInput(chars, offset, length);
+    }
+
+    public Json(InputStream stream) {
+        this.input = new ByteInput(stream);
+    }
+
+    public Json(byte[] bytes) {
+        this.input = new ByteInput(bytes);
     }
 
-    public Json(InputStream reader) {
-        this.reader = new BufferedReader(new InputStreamReader(reader));
+    public Json(byte[] bytes, int offset, int length) {
+        this.input = new ByteInput(bytes, offset, length);
+    }
+
+    public Json(ByteBuffer buffer) {
+        this.input = new BufferInput(buffer);
+    }
+
+    public Json(Path path) {
+        this.input = new MappedInput(path);
     }
 
     @Deprecated
     public Json(File file) {
-        try {
-            this.reader = new BufferedReader(new InputStreamReader(new FileInputStream(file)));
-            this.writer = null;
-        } catch (FileNotFoundException e) {
-            throw new JsonException(e);
-        }
+        this(file.toPath());
     }
 
+    /**
+     * Writes UTF-8 to the stream, whatever the platform's default charset.
+     */
     public Json(OutputStream stream) {
-        this.writer = new OutputStreamWriter(stream);
+        this.output = new ByteOutput(stream);
     }
 
     public Json(java.io.Writer writer) {
         this.writer = writer;
+        this.output = new WriterOutput(writer);
+    }
+
+    /**
+     * Takes this thread's spare controller for a static helper, or makes one if that is already in use.
+     */
+    static Json borrow() {
+        final Json json = SPARE.get();
+        if (json == null) return new Json();
+        SPARE.set(null);
+        return json;
+    }
+
+    /**
+     * Returns a borrowed controller, keeping its buffers for the next helper call on this thread.
+     * A symbol table that has filled up is swapped for an empty one, so later documents with other keys are still interned.
+     */
+    void release() {
+        this.clear();
+        if (strings != null && strings.builder.capacity() > 1 << 20) this.strings = null;
+        if (symbols != null && symbols.isFull()) this.symbols = new SymbolTable();
+        SPARE.set(this);
+    }
+
+    private static String print(Consumer<Json> action) {
+        final Json json = borrow();
+        try {
+            if (json.strings == null) json.strings = new StringOutput();
+            json.strings.builder.setLength(0);
+            json.output = json.strings;
+            action.accept(json);
+            return json.strings.toString();
+        } finally {
+            json.release();
+        }
+    }
+
+    private static <Result> Result parse(String string, Function<Json, Result> action) {
+        final Json json = borrow().reuse(string);
+        try {
+            return action.apply(json);
+        } finally {
+            json.release();
+        }
+    }
+
+    private void clear() {
+        this.state = START;
+        this.plain.reset();
+        this.controller = plain;
+        this.input = null;
+        this.output = null;
+        this.reader = null;
+        this.writer = null;
+    }
+
+    /**
+     * Points this controller at a new input, keeping its buffers, symbol table and settings.
+     * The previous input or output is dropped without being closed.
+     */
+    public Json reuse(CharSequence sequence) {
+        this.clear();
+        this.input = new StringInput(sequence);
+        return this;
+    }
+
+    public Json reuse(byte[] bytes) {
+        this.clear();
+        this.input = new ByteInput(bytes);
+        return this;
+    }
+
+    public Json reuse(java.io.Reader reader) {
+        final JsonInput previous = input;
+        this.clear();
+        this.reader = reader;
+        this.input = previous instanceof ReaderInput old ? old.reuse(reader) : new ReaderInput(reader);
+        return this;
+    }
+
+    public Json reuse(InputStream stream) {
+        final JsonInput previous = input;
+        this.clear();
+        this.input = previous instanceof ByteInput old && old.stream != null ? old.reuse(stream) : new ByteInput(stream);
+        return this;
+    }
+
+    public Json reuse(OutputStream stream) {
+        final JsonOutput previous = output;
+        this.clear();
+        this.output = previous instanceof ByteOutput old && old.target == null ? old.reuse(stream) : new ByteOutput(stream);
+        return this;
+    }
+
+    /**
+     * Points this controller at a new writer, keeping its buffers and settings.
+     * The previous input or output is dropped without being closed or flushed.
+     */
+    public Json reuse(java.io.Writer writer) {
+        final JsonOutput previous = output;
+        this.clear();
+        this.writer = writer;
+        this.output = previous instanceof WriterOutput old ? old.reuse(writer) : new WriterOutput(writer);
+        return this;
     }
 
     protected static String charToCode(Object object) {
@@ -87,27 +236,24 @@ public class Json extends Grammar implements Closeable, AutoCloseable {
         return new String(characters);
     }
 
+    /**
+     * Writes only the given fields. The selection is resolved again on each call,
+     * so code that writes the same selection repeatedly should keep a {@link Projection} instead.
+     */
     public static String toJson(Object object, String indent, String... keys) {
-        final StringWriter writer = new StringWriter();
-        final Json json = new Json(writer);
-        final Map<String, Object> map = new LinkedHashMap<>();
-        json.marshal(object, object.getClass(), map);
-        final List<String> list = List.of(keys);
-        map.keySet().removeIf(key -> !list.contains(key));
-        new Json(writer).write(map, indent, 0);
-        return writer.toString();
+        return toJson(object, Projection.of(keys), indent);
+    }
+
+    public static String toJson(Object object, Projection projection, String indent) {
+        return print(json -> json.write(object, projection, indent));
     }
 
     public static String toJson(Object object, Class<?> type, String indent) {
-        final StringWriter writer = new StringWriter();
-        new Json(writer).write(object, type, indent);
-        return writer.toString();
+        return print(json -> json.write(object, type, indent));
     }
 
     public static String toJson(Object object, String indent) {
-        final StringWriter writer = new StringWriter();
-        new Json(writer).write(object, indent);
-        return writer.toString();
+        return print(json -> json.write(object, indent));
     }
 
     public static <Component> String toJsonArray(Component... array) {
@@ -115,135 +261,115 @@ public class Json extends Grammar implements Closeable, AutoCloseable {
     }
 
     public static <Component> String toJsonArray(String indent, Component... array) {
-        final StringWriter writer = new StringWriter();
-        final List<Object> list = new ArrayList<>();
-        try (Json json = new Json(writer)) {
-            json.deconstructArray(array, array.getClass().getComponentType(), list, true);
-            json.write(list, indent, 0);
-        }
-        return writer.toString();
+        return print(json -> {
+            json.setController(new WriteController(indent, 0));
+            Codec.writeArray(json, array, true);
+        });
     }
 
     public static String toJson(Object object) {
-        final StringWriter writer = new StringWriter();
-        new Json(writer).write(object);
-        return writer.toString();
+        return print(json -> json.write(object));
     }
 
     public static String toJson(Map<?, ?> map, String indent) {
-        final StringWriter writer = new StringWriter();
-        new Json(writer).write(map, indent, 0);
-        return writer.toString();
+        return print(json -> json.write(map, indent, 0));
     }
 
     public static String toJson(Map<?, ?> map) {
-        final StringWriter writer = new StringWriter();
-        new Json(writer).write(map);
-        return writer.toString();
+        return print(json -> json.write(map));
     }
 
     public static String toJson(List<?> list, String indent) {
-        final StringWriter writer = new StringWriter();
-        new Json(writer).write(list, indent, 0);
-        return writer.toString();
+        return print(json -> json.write(list, indent, 0));
     }
 
     public static String toJson(List<?> list) {
-        final StringWriter writer = new StringWriter();
-        new Json(writer).write(list);
-        return writer.toString();
+        return print(json -> json.write(list));
     }
 
     @Contract(pure = true)
     public static Object parseJson(String string) {
         if (string == null || string.isBlank()) return null;
-        try (final Json json = new Json(string.trim())) {
-            json.mark(4);
+        return parse(string, json -> {
             json.state = EXPECTING_VALUE;
+            json.input.skipWhitespace();
             return json.readElement(json.readChar());
-        }
+        });
     }
 
     @Contract(pure = true)
     public static Map<String, Object> toMap(Object object) {
-        final Map<String, Object> map = new LinkedHashMap<>();
-        new Json(new StringWriter()).marshal(object, object.getClass(), map);
-        return map;
+        final Json json = borrow();
+        try {
+            return json.marshal(object, object.getClass(), new LinkedHashMap<>());
+        } finally {
+            json.release();
+        }
     }
 
     @Contract(pure = true)
     public static Map<String, Object> fromJson(String string) {
-        try (final Json json = new Json(string)) {
-            return json.toMap(new LinkedHashMap<>());
-        }
+        return parse(string, json -> json.toMap(new JsonMap()));
     }
 
     public static <Type> Type fromJson(String string, Type object) {
-        try (final Json json = new Json(string)) {
+        return parse(string, json -> {
             if (object.getClass().isArray()) return json.toArray(object);
             else return json.toObject(object);
-        }
+        });
     }
 
     @Contract(pure = true)
     public static <Type> Type fromJson(String string, Class<Type> object) {
-        try (final Json json = new Json(string)) {
-            if (object.isArray()) return (Type) json.toArray(object.getComponentType());
+        return parse(string, json -> {
+            if (object.isArray()) return (Type) json.toArray(Array.newInstance(object.getComponentType(), 0));
             else return json.toObject(object);
-        }
+        });
     }
 
     public static <Type> Type fromJson(String string, Type object, Class<?> type) {
-        try (final Json json = new Json(string)) {
-            return json.toObject(object, type);
-        }
+        return parse(string, json -> json.toObject(object, type));
     }
 
     static Object read(char initial, Json json) {
-        final StringBuilder builder = new StringBuilder();
+        final JsonInput input = json.input;
         if (initial == '"') {
-            final String value = new StringReader(json.reader, builder).read();
-            if (value.contains("\\u")) {
-                return CODE_POINT.matcher(value)
-                    .replaceAll(result -> Json.codeToChar(result.group()));
-            } else return value;
+            return input.readString(json.scratch);
         } else if (initial == '{') {
-            json.reset();
-            try (JsonObject object = new JsonObject(json)) {
+            try (JsonObject object = new JsonObject(json, true)) {
                 return object.readMap();
             }
         } else if (initial == '[') {
-            json.reset();
-            try (JsonArray array = new JsonArray(json)) {
+            try (JsonArray array = new JsonArray(json, true)) {
                 return array.readList();
             }
         } else if (initial >= '0' && initial <= '9' || initial == '-') {
-            json.reset();
-            return new NumberReader(json.reader, builder).read();
-        } else if (initial == 'f' || initial == 't') {
-            json.reset();
-            return new BooleanReader(json.reader, builder).read();
+            return Json.readNumber(initial, json);
+        } else if (initial == 't') {
+            input.literal("true");
+            return true;
+        } else if (initial == 'f') {
+            input.literal("false");
+            return false;
         } else if (initial == 'n') {
-            json.reset();
-            return new NullReader(json.reader, builder).read();
+            input.literal("null");
+            return null;
+        } else if (initial == 65535) {
+            throw new JsonException("Reached end of Json while expecting a value.");
         } else throw new JsonException("Expected value start, found illegal '" + initial + "'.");
     }
 
-    static String sanitise(String string) {
-        final String part = string
-            .replace("\"", "\\\"")
-            .replace("\n", "\\n")
-            .replace("\r", "\\r")
-            .replace("\t", "\\t")
-            .replace("\b", "\\b")
-            .replace("\f", "\\f");
-        return Json.charToCode(part);
+    static Number readNumber(char initial, Json json) {
+        return NumberParser.read(initial, json.input, json.scratch, json.numbers);
     }
 
     static void write(Object value, Json json) {
-        if (value instanceof Double d) json.writeString(FORMAT.format(d));
+        if (value instanceof Double d) DoubleFormatter.write(d, json.output);
+        else if (value instanceof Float f) DoubleFormatter.write(f, json.output);
+        else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte)
+            json.output.writeLong(((Number) value).longValue());
         else if (value instanceof Boolean || value instanceof Number) json.writeString(value.toString());
-        else if (value instanceof String string) json.writeString('"' + sanitise(string) + '"');
+        else if (value instanceof String string) json.writeQuoted(string);
         else if (value == null) json.writeString("null");
         else if (value instanceof Map<?, ?> child) try (JsonObject object = new JsonObject(json)) {
             object.write(child);
@@ -252,11 +378,20 @@ public class Json extends Grammar implements Closeable, AutoCloseable {
             array.write(child);
         }
         else if (value instanceof JsonData data) data.write(json);
-        json.flush();
     }
 
     public static Json of(String string) {
-        return new Json(new ByteArrayInputStream(string.getBytes(StandardCharsets.UTF_8)));
+        return new Json(string);
+    }
+
+    /**
+     * Makes a controller that writes UTF-8 into the buffer, from its position.
+     * Output is copied in on each flush; a value that does not fit raises an error.
+     */
+    public static Json into(ByteBuffer buffer) {
+        final Json json = new Json();
+        json.output = new ByteOutput(buffer);
+        return json;
     }
 
     @Override
@@ -267,27 +402,27 @@ public class Json extends Grammar implements Closeable, AutoCloseable {
     @Override
     protected <Type, Container extends Map<String, Object>> Container marshal(Object object, Class<Type> type,
                                                                               Container container) {
-        return super.marshal(object, type, container);
+        return Codec.of(type).marshal(this, object, container);
     }
 
     @Override
     protected <Type, Container extends Map<?, ?>> Type unmarshal(Type object, Class<?> type, Container container) {
-        return super.unmarshal(object, type, container);
+        return Codec.of(type).unmarshal(this, object, container);
     }
 
     @Override
     protected <Type, Container extends Map<?, ?>> Type unmarshal(Class<Type> type, Container container) {
-        return super.unmarshal(type, container);
+        return Codec.of(type).create(this, container);
     }
 
     @Override
     protected <Type, Container extends Map<?, ?>> Type unmarshal(Type object, Container container) {
-        return super.unmarshal(object, container);
+        return Codec.of(object.getClass()).unmarshal(this, object, container);
     }
 
     @Override
     protected Map<String, Object> marshal(Object object) {
-        return super.marshal(object);
+        return Codec.of(object.getClass()).marshal(this, object, new LinkedHashMap<>());
     }
 
     @Deprecated
@@ -299,9 +434,18 @@ public class Json extends Grammar implements Closeable, AutoCloseable {
     public void write(Object object, Class<?> type, String indent) {
         assert object != null : "Object was null.";
         assert object instanceof Class<?> ^ true : "Classes cannot be read from.";
-        final Map<String, Object> map = new LinkedHashMap<>();
-        this.marshal(object, type, map);
-        this.write(map, indent, 0);
+        this.setController(new WriteController(indent, 0));
+        try (JsonObject writer = new JsonObject(this)) {
+            Codec.of(type).write(this, object, writer);
+        }
+    }
+
+    /**
+     * Writes only the fields selected by the projection; the others are never read.
+     */
+    public void write(Object object, Projection projection, String indent) {
+        this.setController(new WriteController(indent, 0));
+        projection.write(this, object);
     }
 
     public void write(Object object, String indent) {
@@ -334,8 +478,9 @@ public class Json extends Grammar implements Closeable, AutoCloseable {
     public <Type> Type toObject(Type object, Class<?> type) {
         assert object != null : "Object was null.";
         assert object instanceof Class<?> ^ true : "Classes cannot be written to.";
-        final Map<String, Object> map = this.toMap(new LinkedHashMap<>());
-        return this.unmarshal(object, type, map);
+        try (JsonObject reader = new JsonObject(this)) {
+            return Codec.of(type).read(this, object, reader);
+        }
     }
 
     public <Type> Type toObject(Type object) {
@@ -344,8 +489,9 @@ public class Json extends Grammar implements Closeable, AutoCloseable {
     }
 
     public <Type> Type toObject(Class<Type> type) {
-        final Map<String, Object> map = this.toMap(new HashMap<>());
-        return this.unmarshal(type, map);
+        try (JsonObject reader = new JsonObject(this)) {
+            return Codec.of(type).create(this, reader);
+        }
     }
 
     public Object[] toArray() {
@@ -365,15 +511,7 @@ public class Json extends Grammar implements Closeable, AutoCloseable {
 
     @Deprecated(since = "1.2.0")
     public boolean willBeMap() {
-        char c;
-        while (true) {
-            this.mark(4);
-            c = this.readChar();
-            if (c <= 32 || c == 160) continue;
-            break;
-        }
-        this.reset();
-        return c == '{';
+        return input.skipWhitespace() == '{';
     }
 
     @Deprecated(since = "1.2.0")
@@ -382,15 +520,8 @@ public class Json extends Grammar implements Closeable, AutoCloseable {
     }
 
     public Object readObject() {
-        char c;
-        while (true) {
-            this.mark(4);
-            c = this.readChar();
-            if (c <= 32 || c == 160) continue;
-            break;
-        }
-        this.reset();
-        return Json.read(c, this);
+        this.input.skipWhitespace();
+        return Json.read(this.readChar(), this);
     }
 
     public List<Object> toList() {
@@ -409,7 +540,7 @@ public class Json extends Grammar implements Closeable, AutoCloseable {
     }
 
     public Map<String, Object> toMap() {
-        return this.toMap(new LinkedHashMap<>());
+        return this.toMap(new JsonMap());
     }
 
     public <Container extends Map<String, Object>> Container toNewMap(Supplier<Container> supplier) {
@@ -423,6 +554,26 @@ public class Json extends Grammar implements Closeable, AutoCloseable {
         }
     }
 
+    /**
+     * Indexes the rest of the input in a single pass and returns a read-only view of the value.
+     * Keys and values are only decoded when they are accessed.
+     */
+    public Object toLazy() {
+        return new JsonTape(input.remaining(), numbers).value(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> toLazyMap() {
+        if (this.toLazy() instanceof Map<?, ?> map) return (Map<String, Object>) map;
+        throw new JsonException("Expected an object.");
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<Object> toLazyList() {
+        if (this.toLazy() instanceof List<?> list) return (List<Object>) list;
+        throw new JsonException("Expected an array.");
+    }
+
     public Object readElement(char initial) {
         return Json.read(initial, this);
     }
@@ -432,7 +583,7 @@ public class Json extends Grammar implements Closeable, AutoCloseable {
     }
 
     public void write(List<?> list, String indent, int level) {
-        if (writer == null) throw new JsonException("This Json controller has no writer.");
+        if (output == null) throw new JsonException("This Json controller has no writer.");
         this.setController(new WriteController(indent, level));
         try (JsonArray array = new JsonArray(this)) {
             array.write(list);
@@ -450,71 +601,92 @@ public class Json extends Grammar implements Closeable, AutoCloseable {
         }
     }
 
-    protected void flush() {
-        if (writer != null) {
-            try {
-                this.writer.flush();
-            } catch (IOException e) {
-                throw new JsonException(e);
-            }
-        }
+    public void flush() {
+        if (output != null) this.output.flush();
+    }
+
+    public Flush getFlush() {
+        return flush;
+    }
+
+    public void setFlush(Flush flush) {
+        this.flush = flush;
+    }
+
+    public boolean isEscapeUnicode() {
+        return escapeUnicode;
+    }
+
+    public void setEscapeUnicode(boolean escapeUnicode) {
+        this.escapeUnicode = escapeUnicode;
+    }
+
+    public Numbers getNumbers() {
+        return numbers;
+    }
+
+    public void setNumbers(Numbers numbers) {
+        this.numbers = numbers;
+    }
+
+    public SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * Sets the table that object keys are interned in, which may be shared with other parsers.
+     * A null table turns interning off.
+     */
+    public void setSymbols(SymbolTable symbols) {
+        this.symbols = symbols;
+    }
+
+    /**
+     * Reads the body of an object key, the opening quote having been consumed.
+     */
+    String readKey() {
+        if (symbols == null) return input.readString(scratch);
+        return input.readKey(scratch, symbols);
+    }
+
+    void complete() {
+        if (flush == Flush.VALUE) this.flush();
     }
 
     protected void mark(int chars) {
-        try {
-            this.reader.mark(chars);
-        } catch (IOException ex) {
-            throw new JsonException(ex);
-        }
+        this.input.mark(chars);
     }
 
     protected void writeString(String value) {
-        try {
-            this.writer.write(value);
-        } catch (IOException ex) {
-            throw new JsonException(ex);
-        }
-        this.flush();
+        this.output.write(value);
     }
 
     protected void writeChar(char c) {
-        try {
-            this.writer.write(c);
-        } catch (IOException ex) {
-            throw new JsonException(ex);
-        }
+        this.output.write(c);
+    }
+
+    protected void writeQuoted(String value) {
+        this.output.writeQuoted(value, escapeUnicode);
     }
 
     protected char readChar() {
-        try {
-            return (char) reader.read();
-        } catch (IOException ex) {
-            throw new JsonException(ex);
-        }
+        return (char) input.read();
     }
 
     protected void reset() {
-        try {
-            this.reader.reset();
-        } catch (IOException ex) {
-            throw new JsonException(ex);
-        }
+        this.input.reset();
     }
 
     @Override
     public void close() {
-        try {
-            this.state = 0;
-            this.controller = null;
-            if (reader != null) reader.close();
-            if (writer != null) writer.close();
-        } catch (IOException ex) {
-            throw new JsonException(ex);
-        }
+        this.state = 0;
+        this.controller = null;
+        if (input != null) input.close();
+        if (output != null) output.close();
     }
 
     public boolean isWritable() {
-        return writer != null;
+        return output != null;
     }
 
     WriteController writeController() {
@@ -531,6 +703,7 @@ public class Json extends Grammar implements Closeable, AutoCloseable {
 
     }
 
+    @Deprecated
     protected record BooleanReader(java.io.Reader stream, StringBuilder builder)
         implements Json.Reader {
 
@@ -564,6 +737,7 @@ public class Json extends Grammar implements Closeable, AutoCloseable {
 
     }
 
+    @Deprecated
     protected record NullReader(java.io.Reader stream, StringBuilder builder)
         implements Json.Reader {
 
@@ -590,6 +764,7 @@ public class Json extends Grammar implements Closeable, AutoCloseable {
 
     }
 
+    @Deprecated
     protected record StringReader(java.io.Reader stream, StringBuilder builder)
         implements Json.Reader {
 
@@ -625,6 +800,7 @@ public class Json extends Grammar implements Closeable, AutoCloseable {
 
     }
 
+    @Deprecated
     protected record NumberReader(java.io.Reader stream, StringBuilder builder)
         implements Json.Reader {
 
@@ -658,6 +834,32 @@ public class Json extends Grammar implements Closeable, AutoCloseable {
 
     }
 
+    public enum Flush {
+        /**
+         * Flushes the output whenever a top-level value has been written.
+         */
+        VALUE,
+        /**
+         * Flushes the output only when the buffer is full, on {@link Json#flush()} and on close.
+         */
+        BUFFER
+    }
+
+    public enum Numbers {
+        /**
+         * Integers become Integer, Long or BigInteger by size, anything else a Double.
+         */
+        STANDARD,
+        /**
+         * Integers become Integer, Long or BigInteger by size, anything else a BigDecimal.
+         */
+        BIG,
+        /**
+         * Integers that fit become Integer or Long, anything else a {@link JsonNumber} holding the original digits.
+         */
+        LAZY
+    }
+
     @Deprecated
     @SuppressWarnings({"SameParameterValue"})
     public static class JsonHelper extends Json {
@@ -683,7 +885,7 @@ public class Json extends Grammar implements Closeable, AutoCloseable {
     static class WriteController {
 
         final String indent;
-        int level;
+        int level, depth;
 
         public WriteController(String indent) {
             this.indent = indent;
@@ -700,10 +902,21 @@ public class Json extends Grammar implements Closeable, AutoCloseable {
 
         public void enter() {
             this.level++;
+            this.depth++;
         }
 
         public void exit() {
             this.level--;
+            this.depth--;
+        }
+
+        public boolean isComplete() {
+            return depth == 0;
+        }
+
+        void reset() {
+            this.level = 0;
+            this.depth = 0;
         }
 
         public String getIndent() {
@@ -742,6 +955,10 @@ abstract class JsonElement implements Closeable {
         this.json.flush();
     }
 
+    protected void complete() {
+        if (controller.isComplete()) this.json.complete();
+    }
+
     protected void mark(int chars) {
         if (!this.isWritable()) json.mark(chars);
     }
@@ -754,6 +971,10 @@ abstract class JsonElement implements Closeable {
         if (this.isWritable()) json.writeChar(c);
     }
 
+    protected void writeQuoted(String value) {
+        if (this.isWritable()) json.writeQuoted(value);
+    }
+
     protected char readChar() {
         if (!this.isWritable()) return json.readChar();
         else return 0;
@@ -3,11 +3,13 @@ package mx.kenzie.argo;
 import mx.kenzie.argo.meta.JsonException;
 
 import java.lang.reflect.Array;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @SuppressWarnings({"SameParameterValue", "null"})
-public class JsonArray extends JsonElement {
+public class JsonArray extends JsonElement implements Iterable<Object> {
 
     private static final Object END = new Object();
     protected boolean first = true;
@@ -17,49 +19,117 @@ public class JsonArray extends JsonElement {
         this.open();
     }
 
+    JsonArray(Json json, boolean opened) {
+        super(json);
+        if (!opened) this.open();
+    }
+
     public void write(List<?> list) {
         if (!this.isWritable()) throw new JsonException("This Json controller has no writer.");
         for (Object value : list) this.writeValue(value);
     }
 
     public void writeValue(JsonData value) {
-        if (!first) this.writeString(", ");
-        this.writeString(controller.getIndent());
+        this.next();
         value.write(json);
-        this.first = false;
     }
 
     public void writeValue(Object value) {
+        this.next();
+        Json.write(value, json);
+    }
+
+    /**
+     * Writes the separator (and indent) before the next element.
+     */
+    void next() {
         if (!first) this.writeString(", ");
         this.writeString(controller.getIndent());
-        Json.write(value, json);
         this.first = false;
     }
 
-    private char skip() {
-        char c;
-        do {
-            this.mark(4);
-            c = this.readChar();
-        } while (c == ',' || Character.isWhitespace(c));
-        if (c == ']') {
-            this.reset();
-        }
+    private int skip() {
+        final JsonInput input = json.input;
+        int c;
+        while ((c = input.skipWhitespace()) == ',') input.read();
+        if (c == -1) throw new JsonException("Reached end of stream while reading array.");
         return c;
     }
 
     public <Type extends JsonData> Type readValue(Type thing) {
-        final char c = this.skip();
+        final int c = this.skip();
         if (c == ']') return thing;
-        this.reset();
         thing.read(json);
         return thing;
     }
 
     public Object readValue() {
-        final char c = this.skip();
+        final int c = this.skip();
         if (c == ']') return END;
-        return Json.read(c, json);
+        return Json.read(this.readChar(), json);
+    }
+
+    public boolean hasNext() {
+        return this.skip() != ']';
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+        return this.elements(this::readValue);
+    }
+
+    /**
+     * Decodes one element at a time, converting each into the given type.
+     */
+    public <Type> Iterator<Type> iterator(Class<Type> type) {
+        return this.elements(() -> this.readValue(type));
+    }
+
+    /**
+     * Decodes one element at a time into the same data object, which is returned for each element.
+     */
+    public <Type extends JsonData> Iterator<Type> iterator(Type thing) {
+        return this.elements(() -> this.readValue(thing));
+    }
+
+    private <Type> Iterator<Type> elements(Supplier<Type> reader) {
+        if (json.input == null) throw new JsonException("This Json controller has no reader.");
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return JsonArray.this.hasNext();
+            }
+
+            @Override
+            public Type next() {
+                if (!this.hasNext()) throw new NoSuchElementException();
+                return reader.get();
+            }
+        };
+    }
+
+    @Override
+    public Spliterator<Object> spliterator() {
+        return Spliterators.spliteratorUnknownSize(this.iterator(), Spliterator.ORDERED);
+    }
+
+    public Stream<Object> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
+
+    public <Type> Stream<Type> stream(Class<Type> type) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this.iterator(type), Spliterator.ORDERED), false);
+    }
+
+    public <Type extends JsonData> Stream<Type> stream(Type thing) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this.iterator(thing), Spliterator.ORDERED), false);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <Type> Type readValue(Class<Type> type) {
+        final int c = this.skip();
+        if (c == ']') return null;
+        return (Type) Codec.read(json, this.readChar(), type);
     }
 
     @Override
@@ -81,7 +151,7 @@ public class JsonArray extends JsonElement {
             this.controller.exit();
             this.writeString(controller.getIndent());
             this.json.writeChar(']');
-            this.flush();
+            this.complete();
         } else while (true) switch (this.readChar()) {
             case ']':
                 return;
@@ -100,7 +170,7 @@ public class JsonArray extends JsonElement {
     }
 
     public <Container extends List<Object>> Container toList(Container list) {
-        if (json.reader == null) throw new JsonException("This Json controller has no reader.");
+        if (json.input == null) throw new JsonException("This Json controller has no reader.");
         Object value;
         while ((value = this.readValue()) != END) list.add(value);
         return list;
@@ -116,15 +186,11 @@ public class JsonArray extends JsonElement {
         if (array == null) throw new JsonException("Provided array was null.");
         final Class<?> type = array.getClass();
         if (!type.isArray()) throw new JsonException("Provided object was not an array.");
-        final Class<?> component = type.getComponentType();
-        final List<?> list = this.readList();
-        final Container container;
-        if (Array.getLength(array) < 1) container = (Container) Array.newInstance(component, list.size());
-        else container = array;
-        final Object source = json.constructArray(container.getClass(), list);
-        final int a = Array.getLength(container), b = Array.getLength(source);
-        System.arraycopy(source, 0, container, 0, Math.min(a, b));
-        return container;
+        if (json.input == null) throw new JsonException("This Json controller has no reader.");
+        final Object source = Codec.readElements(json, this, type.getComponentType());
+        if (Array.getLength(array) < 1) return (Container) source;
+        System.arraycopy(source, 0, array, 0, Math.min(Array.getLength(array), Array.getLength(source)));
+        return array;
     }
 
 }
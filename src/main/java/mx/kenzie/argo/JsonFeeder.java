@@ -0,0 +1,301 @@
+package mx.kenzie.argo;
+
+import mx.kenzie.argo.meta.JsonException;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A push parser for UTF-8 json arriving in chunks, e.g. from a non-blocking channel.
+ * Each chunk is consumed completely and the parser keeps its place between chunks
+ * (including part-way through a string, escape, number or multibyte character),
+ * handing every top-level value to the consumer as soon as it is complete.
+ * Any number of top-level values may follow one another. A feeder that has thrown should be discarded.
+ */
+public final class JsonFeeder {
+
+    private static final byte
+        VALUE = 0,
+        FIRST_VALUE = 1,
+        NEXT = 2,
+        KEY = 3,
+        FIRST_KEY = 4,
+        COLON = 5,
+        STRING = 6,
+        ESCAPE = 7,
+        UNICODE = 8,
+        NUMBER = 9,
+        LITERAL = 10;
+
+    private final Consumer<Object> action;
+    private final StringBuilder builder = new StringBuilder();
+    private Object[] containers = new Object[16];
+    private String[] keys = new String[16];
+    private int depth;
+    private byte state = VALUE;
+    private boolean key, decimal;
+    private String literal;
+    private int matched, point, needed, hex, digits;
+    private Json.Numbers numbers = Json.Numbers.STANDARD;
+    private SymbolTable symbols = new SymbolTable();
+
+    public JsonFeeder(Consumer<Object> action) {
+        this.action = action;
+    }
+
+    /**
+     * Consumes everything remaining in the buffer.
+     */
+    public void feed(ByteBuffer buffer) {
+        final int limit = buffer.limit();
+        int index = buffer.position();
+        while (index < limit) {
+            if (state == STRING && needed == 0) {
+                byte b;
+                while (index < limit && (b = buffer.get(index)) >= ' ' && b != '"' && b != '\\') {
+                    this.builder.append((char) b);
+                    index++;
+                }
+                if (index == limit) break;
+            }
+            this.accept(buffer.get(index++) & 0xFF);
+        }
+        buffer.position(limit);
+    }
+
+    public void feed(byte[] bytes) {
+        this.feed(ByteBuffer.wrap(bytes));
+    }
+
+    public void feed(byte[] bytes, int offset, int length) {
+        this.feed(ByteBuffer.wrap(bytes, offset, length));
+    }
+
+    /**
+     * Marks the end of the input, completing a trailing top-level number.
+     *
+     * @throws JsonException if the input stopped part-way through a value
+     */
+    public void end() {
+        if (state == NUMBER && depth == 0) this.number();
+        if (state != VALUE || depth > 0) throw new JsonException("Reached end of Json while reading a value.");
+    }
+
+    /**
+     * @return whether the parser is part-way through a value
+     */
+    public boolean isPending() {
+        return state != VALUE || depth > 0;
+    }
+
+    public Json.Numbers getNumbers() {
+        return numbers;
+    }
+
+    public void setNumbers(Json.Numbers numbers) {
+        this.numbers = numbers;
+    }
+
+    public SymbolTable getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * @param symbols the table object keys are interned in, or null to not intern them
+     */
+    public void setSymbols(SymbolTable symbols) {
+        this.symbols = symbols;
+    }
+
+    private void accept(int b) {
+        switch (state) {
+            case STRING -> this.string(b);
+            case ESCAPE -> this.escape(b);
+            case UNICODE -> {
+                final int digit = Character.digit(b, 16);
+                if (digit < 0)
+                    throw new JsonException("Expected hexadecimal digit in unicode escape, found '" + (char) b + "'.");
+                this.hex = hex << 4 | digit;
+                if (++digits < 4) return;
+                this.builder.append((char) hex);
+                this.state = STRING;
+            }
+            case NUMBER -> {
+                final char last = builder.charAt(builder.length() - 1);
+                if (b >= '0' && b <= '9' || (b == '-' || b == '+') && (last == 'e' || last == 'E')) {
+                    this.builder.append((char) b);
+                } else if (b == '.' || b == 'e' || b == 'E') {
+                    this.builder.append((char) b);
+                    this.decimal = true;
+                } else {
+                    this.number();
+                    this.accept(b);
+                }
+            }
+            case LITERAL -> {
+                if (b != literal.charAt(matched)) throw new JsonException("Unable to decipher value starting '"
+                    + literal.substring(0, matched) + (char) b + "...' when expecting '" + literal + "'.");
+                if (++matched < literal.length()) return;
+                this.complete(literal.equals("null") ? null : literal.equals("true"));
+            }
+            default -> {
+                if (b <= ' ') return;
+                this.structure(b);
+            }
+        }
+    }
+
+    private void structure(int b) {
+        switch (state) {
+            case VALUE, FIRST_VALUE -> {
+                if (b == ']' && state == FIRST_VALUE) this.close();
+                else this.value(b);
+            }
+            case NEXT -> {
+                final boolean object = containers[depth - 1] instanceof Map;
+                if (b == ',') this.state = object ? KEY : VALUE;
+                else if (b == (object ? '}' : ']')) this.close();
+                else throw this.unexpected(b, "',' or '" + (object ? '}' : ']') + "'");
+            }
+            case KEY, FIRST_KEY -> {
+                if (b == '"') {
+                    this.builder.setLength(0);
+                    this.key = true;
+                    this.state = STRING;
+                } else if (b == '}' && state == FIRST_KEY) this.close();
+                else throw this.unexpected(b, "key start '\"'");
+            }
+            case COLON -> {
+                if (b != ':') throw this.unexpected(b, "':'");
+                this.state = VALUE;
+            }
+        }
+    }
+
+    private void value(int b) {
+        switch (b) {
+            case '{' -> {
+                this.push(new JsonMap());
+                this.state = FIRST_KEY;
+            }
+            case '[' -> {
+                this.push(new ArrayList<>());
+                this.state = FIRST_VALUE;
+            }
+            case '"' -> {
+                this.builder.setLength(0);
+                this.key = false;
+                this.state = STRING;
+            }
+            case 't', 'f', 'n' -> {
+                this.literal = b == 't' ? "true" : b == 'f' ? "false" : "null";
+                this.matched = 1;
+                this.state = LITERAL;
+            }
+            default -> {
+                if (b != '-' && (b < '0' || b > '9')) throw this.unexpected(b, "value start");
+                this.builder.setLength(0);
+                this.builder.append((char) b);
+                this.decimal = false;
+                this.state = NUMBER;
+            }
+        }
+    }
+
+    private void string(int b) {
+        if (needed > 0) {
+            if ((b & 0xC0) == 0x80) {
+                this.point = point << 6 | b & 0x3F;
+                if (--needed == 0) this.builder.appendCodePoint(point > Character.MAX_CODE_POINT ? 0xFFFD : point);
+                return;
+            }
+            this.builder.append('\uFFFD');
+            this.needed = 0;
+        }
+        if (b == '"') this.finish();
+        else if (b == '\\') this.state = ESCAPE;
+        else if (b < 0x80) this.builder.append((char) b);
+        else if (b >= 0xC0 && b < 0xF8) {
+            final int length = b < 0xE0 ? 2 : b < 0xF0 ? 3 : 4;
+            this.point = b & (0x3F >> (length - 1));
+            this.needed = length - 1;
+        } else this.builder.append('\uFFFD');
+    }
+
+    private void escape(int b) {
+        this.state = STRING;
+        switch (b) {
+            case 'n' -> this.builder.append('\n');
+            case 'r' -> this.builder.append('\r');
+            case 't' -> this.builder.append('\t');
+            case 'f' -> this.builder.append('\f');
+            case 'b' -> this.builder.append('\b');
+            case 'u' -> {
+                this.hex = 0;
+                this.digits = 0;
+                this.state = UNICODE;
+            }
+            default -> this.builder.append((char) b);
+        }
+    }
+
+    private void finish() {
+        if (!key) {
+            this.complete(builder.toString());
+            return;
+        }
+        if (symbols == null) this.keys[depth - 1] = builder.toString();
+        else {
+            int hash = 0;
+            for (int i = 0; i < builder.length(); i++) hash = 31 * hash + builder.charAt(i);
+            this.keys[depth - 1] = symbols.get(builder, 0, builder.length(), hash);
+        }
+        this.state = COLON;
+    }
+
+    private void number() {
+        final int length = builder.length(), sign = builder.charAt(0) == '-' ? 1 : 0;
+        if (!decimal && length > sign && length < 19) {
+            final long value = Long.parseLong(builder, 0, length, 10);
+            if (value == (int) value) this.complete((int) value);
+            else this.complete(value);
+        } else this.complete(NumberParser.convert(builder, numbers));
+    }
+
+    private void push(Object container) {
+        if (depth == containers.length) {
+            this.containers = Arrays.copyOf(containers, depth << 1);
+            this.keys = Arrays.copyOf(keys, depth << 1);
+        }
+        this.containers[depth++] = container;
+    }
+
+    private void close() {
+        final Object container = containers[--depth];
+        this.containers[depth] = null;
+        this.keys[depth] = null;
+        this.complete(container);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void complete(Object value) {
+        if (depth == 0) {
+            this.state = VALUE;
+            this.action.accept(value);
+            return;
+        }
+        final Object parent = containers[depth - 1];
+        if (parent instanceof List<?> list) ((List<Object>) list).add(value);
+        else ((Map<String, Object>) parent).put(keys[depth - 1], value);
+        this.state = NEXT;
+    }
+
+    private JsonException unexpected(int b, String expected) {
+        return new JsonException("Expected " + expected + ", found '" + (char) b + "'.");
+    }
+
+}
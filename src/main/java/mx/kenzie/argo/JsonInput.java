@@ -0,0 +1,288 @@
+package mx.kenzie.argo;
+
+import mx.kenzie.argo.meta.JsonException;
+
+import java.io.Closeable;
+import java.util.Arrays;
+
+/**
+ * A window of characters (or UTF-8 bytes) from position to limit, which sources that stream refill as it is read.
+ * Strings, keys and skipped values are handled here in whole runs: a subclass gives access to its units
+ * and may replace the run scans ({@link #quote(int)}, {@link #whitespace(int)}, {@link #structure(int)})
+ * with faster ones.
+ */
+abstract class JsonInput implements Closeable {
+
+    protected int position, limit;
+    protected int mark = -1, markLimit;
+    private long[] nesting;
+
+    /**
+     * Consumes the next character.
+     *
+     * @return the character, or -1 at the end of the input
+     */
+    abstract int read();
+
+    /**
+     * Returns the next character without consuming it.
+     *
+     * @return the character, or -1 at the end of the input
+     */
+    abstract int peek();
+
+    /**
+     * @return the unit at the index, which must be inside the window: a char, or a (signed) byte
+     */
+    abstract int at(int index);
+
+    /**
+     * @return the units in the range, which holds no quotes or escapes
+     */
+    abstract String string(int start, int end);
+
+    /**
+     * Appends the units in the range, which holds no quotes or escapes.
+     */
+    abstract void append(StringBuilder builder, int start, int end);
+
+    /**
+     * Looks up the key in the range, whose units are all ascii or chars.
+     */
+    abstract String symbol(SymbolTable symbols, int start, int length, int hash);
+
+    /**
+     * Moves unread input into the window, keeping anything after the mark.
+     *
+     * @return false if there was nothing more to read
+     */
+    protected boolean fill() {
+        return false;
+    }
+
+    /**
+     * @return where a run ending at the limit can be cut without splitting a character
+     */
+    protected int boundary(int start, int end) {
+        return end;
+    }
+
+    /**
+     * @return the index of the first quote or backslash from the index, or the limit
+     */
+    protected int quote(int index) {
+        int c;
+        while (index < limit && (c = this.at(index)) != '"' && c != '\\') index++;
+        return index;
+    }
+
+    /**
+     * @return the index of the first unit from the index that is not ascii whitespace, or the limit
+     */
+    protected int whitespace(int index) {
+        int c;
+        while (index < limit && (c = this.at(index)) <= ' ' && c >= 0) index++;
+        return index;
+    }
+
+    /**
+     * @return the index of the first quote, bracket or brace from the index, or the limit
+     */
+    protected int structure(int index) {
+        int c;
+        while (index < limit && (c = this.at(index)) != '"' && (c | 0x20) != '{' && (c | 0x20) != '}') index++;
+        return index;
+    }
+
+    void mark(int limit) {
+        this.mark = position;
+        this.markLimit = limit;
+    }
+
+    void reset() {
+        if (mark < 0) throw new JsonException("Stream not marked.");
+        this.position = mark;
+    }
+
+    @Override
+    public abstract void close();
+
+    /**
+     * Skips whitespace and returns (without consuming) the next significant character.
+     */
+    int skipWhitespace() {
+        while (true) {
+            if (position >= limit && !this.fill()) return -1;
+            this.position = this.whitespace(position);
+            if (position < limit) return this.peek();
+        }
+    }
+
+    /**
+     * Reads the body of a string value. The opening quote must already have been consumed,
+     * the closing quote is consumed by this.
+     */
+    String readString(StringBuilder builder) {
+        builder.setLength(0);
+        while (true) {
+            final int start = position, index = this.quote(start);
+            if (index < limit) {
+                final int c = this.at(index);
+                this.position = index + 1;
+                if (c == '"' && builder.isEmpty()) return this.string(start, index);
+                this.append(builder, start, index);
+                if (c == '"') return builder.toString();
+                this.escape(builder);
+            } else {
+                final int end = this.boundary(start, limit);
+                this.append(builder, start, end);
+                this.position = end;
+                if (!this.fill()) throw new JsonException("Reached end of Json without closing quote '\"'");
+            }
+        }
+    }
+
+    /**
+     * Reads the body of a key, returning the canonical string from the table.
+     * A plain key that is already in the window is looked up without being copied.
+     */
+    String readKey(StringBuilder builder, SymbolTable symbols) {
+        final int start = position, end = this.quote(start);
+        if (end >= limit || this.at(end) != '"') return symbols.intern(this.readString(builder));
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            final int c = this.at(i);
+            if (c < 0) return symbols.intern(this.readString(builder));
+            hash = 31 * hash + c;
+        }
+        this.position = end + 1;
+        return this.symbol(symbols, start, end - start, hash);
+    }
+
+    /**
+     * Skips the rest of a value whose first character has been read, without decoding it.
+     * Containers are skipped by matching brackets outside strings, so the values inside them are not checked.
+     */
+    void skipValue(char initial) {
+        switch (initial) {
+            case '"' -> this.skipString();
+            case '{', '[' -> this.skipContainer(initial);
+            case 't' -> this.literal("true");
+            case 'f' -> this.literal("false");
+            case 'n' -> this.literal("null");
+            case 65535 -> throw new JsonException("Reached end of Json while expecting a value.");
+            default -> {
+                if (initial < '0' && initial != '-' || initial > '9')
+                    throw new JsonException("Expected value start, found illegal '" + initial + "'.");
+                int c;
+                while ((c = this.peek()) >= '0' && c <= '9' || c == '.' || c == 'e' || c == 'E' || c == '-' || c == '+')
+                    this.read();
+            }
+        }
+    }
+
+    /**
+     * Skips the body of a string, the opening quote must already have been consumed.
+     */
+    void skipString() {
+        while (true) {
+            this.position = this.quote(position);
+            if (position >= limit) {
+                if (!this.fill()) break;
+                continue;
+            }
+            if (this.at(position++) == '"') return;
+            if (position >= limit && !this.fill()) break;
+            this.position++;
+        }
+        throw new JsonException("Reached end of Json without closing quote '\"'");
+    }
+
+    /**
+     * Skips the rest of an object or array, whose opening bracket must already have been consumed.
+     *
+     * @throws JsonException if a closing bracket does not match the one it closes
+     */
+    void skipContainer(char open) {
+        int depth = 0;
+        this.nest(depth++, open == '{');
+        while (true) {
+            this.position = this.structure(position);
+            if (position >= limit) {
+                if (!this.fill()) break;
+                continue;
+            }
+            final int c = this.at(position++);
+            if (c == '"') this.skipString();
+            else if (c == '{' || c == '[') this.nest(depth++, c == '{');
+            else {
+                --depth;
+                if ((nesting[depth >>> 6] >>> depth & 1) != (c == '}' ? 1 : 0))
+                    throw new JsonException("Unexpected '" + (char) c + "' while skipping a value.");
+                if (depth == 0) return;
+            }
+        }
+        throw new JsonException("Reached end of Json while skipping a value.");
+    }
+
+    /**
+     * Records whether the container at the depth is an object, one bit per level.
+     */
+    private void nest(int depth, boolean object) {
+        final int word = depth >>> 6;
+        if (nesting == null) this.nesting = new long[1];
+        else if (word == nesting.length) this.nesting = Arrays.copyOf(nesting, word << 1);
+        if (object) this.nesting[word] |= 1L << depth;
+        else this.nesting[word] &= ~(1L << depth);
+    }
+
+    /**
+     * Consumes the rest of the input as a source that can be indexed at random.
+     */
+    JsonTape.Source remaining() {
+        final StringBuilder builder = new StringBuilder();
+        int c;
+        while ((c = this.read()) != -1) builder.append((char) c);
+        return new JsonTape.Chars(builder, 0, builder.length());
+    }
+
+    void escape(StringBuilder builder) {
+        final int c = this.read();
+        switch (c) {
+            case 'n' -> builder.append('\n');
+            case 'r' -> builder.append('\r');
+            case 't' -> builder.append('\t');
+            case 'f' -> builder.append('\f');
+            case 'b' -> builder.append('\b');
+            case 'u' -> builder.append(this.readHex());
+            case -1 -> throw new JsonException("Reached end of Json without closing quote '\"'");
+            default -> builder.append((char) c);
+        }
+    }
+
+    char readHex() {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            final int c = this.read();
+            final int digit = Character.digit(c, 16);
+            if (c == -1 || digit < 0)
+                throw new JsonException("Expected hexadecimal digit in unicode escape, found '" + (char) c + "'.");
+            value = value << 4 | digit;
+        }
+        return (char) value;
+    }
+
+    /**
+     * Consumes the rest of a literal (true/false/null) whose first character has been read.
+     */
+    void literal(String literal) {
+        for (int i = 1; i < literal.length(); i++) {
+            final int c = this.read();
+            if (c == literal.charAt(i)) continue;
+            if (c == -1) throw new JsonException("Reached end of Json without finishing expected " + literal + ".");
+            throw new JsonException("Unable to decipher value starting '" + literal.substring(0, i) + (char) c
+                + "...' when expecting '" + literal + "'.");
+        }
+    }
+
+}
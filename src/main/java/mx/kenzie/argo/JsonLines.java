@@ -0,0 +1,230 @@
+package mx.kenzie.argo;
+
+import mx.kenzie.argo.meta.JsonException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Reads newline-delimited json (one document per line), splitting the input into line-aligned
+ * chunks that are parsed in parallel on a fork-join pool.
+ * {@link #read(byte[])} keeps the documents in input order,
+ * {@link #forEach(byte[], Consumer)} hands them over as soon as they are parsed, in no particular order.
+ */
+public class JsonLines {
+
+    private static final int MIN_CHUNK = 1 << 16;
+
+    protected final ForkJoinPool pool;
+    protected final int block;
+
+    public JsonLines() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public JsonLines(ForkJoinPool pool) {
+        this(pool, 1 << 26);
+    }
+
+    JsonLines(ForkJoinPool pool, int block) {
+        this.pool = pool;
+        this.block = block;
+    }
+
+    public List<Object> read(byte[] bytes) {
+        return this.read(bytes, 0, bytes.length, null);
+    }
+
+    public <Type> List<Type> read(byte[] bytes, Class<Type> type) {
+        return this.read(bytes, 0, bytes.length, type);
+    }
+
+    public List<Object> read(InputStream stream) {
+        return this.read(stream, (Class<Object>) null);
+    }
+
+    public <Type> List<Type> read(InputStream stream, Class<Type> type) {
+        final List<Type> list = new ArrayList<>();
+        this.blocks(stream, (bytes, length) -> list.addAll(this.read(bytes, 0, length, type)));
+        return list;
+    }
+
+    public List<Object> read(Path path) {
+        return this.read(path, null);
+    }
+
+    public <Type> List<Type> read(Path path, Class<Type> type) {
+        try (InputStream stream = Files.newInputStream(path)) {
+            return this.read(stream, type);
+        } catch (IOException ex) {
+            throw new JsonException(ex);
+        }
+    }
+
+    /**
+     * Parses every line, handing each document to the consumer from whichever worker parsed it.
+     * The consumer must be thread-safe.
+     */
+    public void forEach(byte[] bytes, Consumer<Object> consumer) {
+        this.forEach(bytes, null, consumer);
+    }
+
+    public <Type> void forEach(byte[] bytes, Class<Type> type, Consumer<? super Type> consumer) {
+        this.pool.invoke(new Each<>(bytes, 0, bytes.length, this.chunk(bytes.length), type, consumer));
+    }
+
+    public void forEach(InputStream stream, Consumer<Object> consumer) {
+        this.forEach(stream, null, consumer);
+    }
+
+    public <Type> void forEach(InputStream stream, Class<Type> type, Consumer<? super Type> consumer) {
+        this.blocks(stream, (bytes, length) ->
+            this.pool.invoke(new Each<>(bytes, 0, length, this.chunk(length), type, consumer)));
+    }
+
+    protected <Type> List<Type> read(byte[] bytes, int start, int end, Class<Type> type) {
+        return this.pool.invoke(new Ordered<>(bytes, start, end, this.chunk(end - start), type));
+    }
+
+    protected int chunk(int length) {
+        return Math.max(MIN_CHUNK, length / (pool.getParallelism() << 2));
+    }
+
+    /**
+     * Reads the stream in large blocks, passing on the part of each block that ends with a complete line.
+     * The buffer starts small and only grows to the block size (or past it, for a longer line) as the stream runs on,
+     * so short streams never pay for a whole block.
+     */
+    private void blocks(InputStream stream, Block action) {
+        byte[] buffer = new byte[Math.min(block, MIN_CHUNK)];
+        int length = 0;
+        try (stream) {
+            while (true) {
+                final int read = stream.read(buffer, length, buffer.length - length);
+                if (read < 0) break;
+                length += read;
+                if (length < buffer.length) continue;
+                final int end = buffer.length < block ? -1 : lastLine(buffer, 0, length);
+                if (end <= 0) {
+                    final int grown = buffer.length < block ? Math.min(block, buffer.length << 1) : buffer.length << 1;
+                    buffer = Arrays.copyOf(buffer, grown);
+                    continue;
+                }
+                action.accept(buffer, end);
+                System.arraycopy(buffer, end, buffer, 0, length - end);
+                length -= end;
+            }
+        } catch (IOException ex) {
+            throw new JsonException(ex);
+        }
+        if (length > 0) action.accept(buffer, length);
+    }
+
+    private static int lastLine(byte[] bytes, int start, int end) {
+        for (int i = end - 1; i >= start; i--) if (bytes[i] == '\n') return i + 1;
+        return -1;
+    }
+
+    private static int nextLine(byte[] bytes, int start, int end) {
+        for (int i = start; i < end; i++) if (bytes[i] == '\n') return i + 1;
+        return end;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <Type> void parse(byte[] bytes, int start, int end, Class<Type> type, Consumer<? super Type> consumer) {
+        try (Json json = new Json(bytes, start, end - start)) {
+            final JsonInput input = json.input;
+            while (input.skipWhitespace() != -1) {
+                int line = input.position;
+                while (line < end && bytes[line] != '\n') line++;
+                if (type == null) consumer.accept((Type) json.readObject());
+                else consumer.accept((Type) Codec.read(json, json.readChar(), type));
+                if (input.position > line) throw new JsonException("Expected one value per line, found a value spanning lines.");
+                for (int i = input.position; i < line; i++) {
+                    final byte b = bytes[i];
+                    if (b != ' ' && b != '\t' && b != '\r')
+                        throw new JsonException("Expected one value per line, found '" + (char) b + "' after a value.");
+                }
+            }
+        }
+    }
+
+    private interface Block {
+
+        void accept(byte[] bytes, int length);
+
+    }
+
+    @SuppressWarnings("serial")
+    private static class Ordered<Type> extends RecursiveTask<List<Type>> {
+
+        private final byte[] bytes;
+        private final int start, end, chunk;
+        private final Class<Type> type;
+
+        Ordered(byte[] bytes, int start, int end, int chunk, Class<Type> type) {
+            this.bytes = bytes;
+            this.start = start;
+            this.end = end;
+            this.chunk = chunk;
+            this.type = type;
+        }
+
+        @Override
+        protected List<Type> compute() {
+            final int middle = end - start > chunk ? nextLine(bytes, start + end >>> 1, end) : end;
+            if (middle >= end) {
+                final List<Type> list = new ArrayList<>();
+                parse(bytes, start, end, type, list::add);
+                return list;
+            }
+            final Ordered<Type> left = new Ordered<>(bytes, start, middle, chunk, type);
+            left.fork();
+            final List<Type> right = new Ordered<>(bytes, middle, end, chunk, type).compute();
+            final List<Type> list = left.join();
+            list.addAll(right);
+            return list;
+        }
+
+    }
+
+    @SuppressWarnings("serial")
+    private static class Each<Type> extends RecursiveAction {
+
+        private final byte[] bytes;
+        private final int start, end, chunk;
+        private final Class<Type> type;
+        private final Consumer<? super Type> consumer;
+
+        Each(byte[] bytes, int start, int end, int chunk, Class<Type> type, Consumer<? super Type> consumer) {
+            this.bytes = bytes;
+            this.start = start;
+            this.end = end;
+            this.chunk = chunk;
+            this.type = type;
+            this.consumer = consumer;
+        }
+
+        @Override
+        protected void compute() {
+            final int middle = end - start > chunk ? nextLine(bytes, start + end >>> 1, end) : end;
+            if (middle >= end) {
+                parse(bytes, start, end, type, consumer);
+                return;
+            }
+            invokeAll(new Each<>(bytes, start, middle, chunk, type, consumer),
+                new Each<>(bytes, middle, end, chunk, type, consumer));
+        }
+
+    }
+
+}
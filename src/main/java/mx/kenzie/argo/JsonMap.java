@@ -0,0 +1,203 @@
+package mx.kenzie.argo;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * The map that parsed objects are read into.
+ * Keys and values are kept side by side in one array in insertion order,
+ * small maps are searched straight through and larger ones get an open-addressing index of positions.
+ * This costs a fraction of the memory of a {@link LinkedHashMap}, but removal is linear.
+ * Removal drops the index and only the entries are serialized, the next lookup rebuilds it.
+ */
+public class JsonMap extends AbstractMap<String, Object> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final int LINEAR = 8;
+
+    private Object[] entries;
+    private transient int[] index;
+    private int size;
+    private transient int modifications;
+
+    public JsonMap() {
+        this(4);
+    }
+
+    public JsonMap(int capacity) {
+        this.entries = new Object[Math.max(capacity, 1) << 1];
+    }
+
+    public JsonMap(Map<String, ?> map) {
+        this(map.size());
+        this.putAll(map);
+    }
+
+    private static int hash(Object key) {
+        final int hash = key == null ? 0 : key.hashCode();
+        return hash ^ hash >>> 16;
+    }
+
+    private int find(Object key) {
+        if (index == null && size > LINEAR) this.rebuild();
+        if (index == null) {
+            for (int i = 0; i < size; i++) if (Objects.equals(key, entries[i << 1])) return i;
+            return -1;
+        }
+        final int mask = index.length - 1;
+        for (int slot = hash(key) & mask; ; slot = slot + 1 & mask) {
+            final int position = index[slot];
+            if (position == 0) return -1;
+            if (Objects.equals(key, entries[position - 1 << 1])) return position - 1;
+        }
+    }
+
+    private void insert(Object key, int position) {
+        final int mask = index.length - 1;
+        int slot = hash(key) & mask;
+        while (index[slot] != 0) slot = slot + 1 & mask;
+        this.index[slot] = position + 1;
+    }
+
+    private void rebuild() {
+        if (size <= LINEAR) {
+            this.index = null;
+            return;
+        }
+        this.index = new int[Integer.highestOneBit(size) << 2];
+        for (int i = 0; i < size; i++) this.insert(entries[i << 1], i);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return this.find(key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        final int position = this.find(key);
+        return position < 0 ? null : entries[(position << 1) + 1];
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        final int position = this.find(key);
+        if (position >= 0) {
+            final Object old = entries[(position << 1) + 1];
+            this.entries[(position << 1) + 1] = value;
+            return old;
+        }
+        if (size << 1 == entries.length) this.entries = Arrays.copyOf(entries, entries.length << 1);
+        this.entries[size << 1] = key;
+        this.entries[(size << 1) + 1] = value;
+        this.size++;
+        this.modifications++;
+        if (index == null ? size > LINEAR : size << 1 > index.length) this.rebuild();
+        else if (index != null) this.insert(key, size - 1);
+        return null;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        final int position = this.find(key);
+        if (position < 0) return null;
+        final Object old = entries[(position << 1) + 1];
+        this.removeAt(position);
+        return old;
+    }
+
+    private void removeAt(int position) {
+        System.arraycopy(entries, position + 1 << 1, entries, position << 1, size - position - 1 << 1);
+        this.size--;
+        this.entries[size << 1] = null;
+        this.entries[(size << 1) + 1] = null;
+        this.modifications++;
+        this.index = null;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(entries, 0, size << 1, null);
+        this.size = 0;
+        this.index = null;
+        this.modifications++;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Object> action) {
+        final int expected = modifications;
+        for (int i = 0; i < size; i++) action.accept((String) entries[i << 1], entries[(i << 1) + 1]);
+        if (expected != modifications) throw new ConcurrentModificationException();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new Iterator<>() {
+                    int cursor, last = -1, expected = modifications;
+
+                    @Override
+                    public boolean hasNext() {
+                        return cursor < size;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (expected != modifications) throw new ConcurrentModificationException();
+                        if (cursor >= size) throw new NoSuchElementException();
+                        this.last = cursor++;
+                        return new Node(last);
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (last < 0) throw new IllegalStateException();
+                        if (expected != modifications) throw new ConcurrentModificationException();
+                        JsonMap.this.removeAt(last);
+                        this.cursor = last;
+                        this.last = -1;
+                        this.expected = modifications;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public void clear() {
+                JsonMap.this.clear();
+            }
+        };
+    }
+
+    private final class Node extends SimpleEntry<String, Object> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int position;
+
+        Node(int position) {
+            super((String) entries[position << 1], entries[(position << 1) + 1]);
+            this.position = position;
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            entries[(position << 1) + 1] = value;
+            return super.setValue(value);
+        }
+
+    }
+
+}
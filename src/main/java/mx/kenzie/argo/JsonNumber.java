@@ -0,0 +1,88 @@
+package mx.kenzie.argo;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * A number kept as the digits it was written with, converted only when asked for.
+ * Written back out, it produces exactly the same text.
+ */
+public final class JsonNumber extends Number implements CharSequence {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String value;
+
+    public JsonNumber(String value) {
+        this.value = value;
+    }
+
+    public boolean isIntegral() {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '.' || c == 'e' || c == 'E') return false;
+        }
+        return true;
+    }
+
+    public BigDecimal bigDecimalValue() {
+        return new BigDecimal(value);
+    }
+
+    public BigInteger bigIntegerValue() {
+        if (this.isIntegral()) return new BigInteger(value);
+        return this.bigDecimalValue().toBigInteger();
+    }
+
+    @Override
+    public int intValue() {
+        return (int) this.longValue();
+    }
+
+    @Override
+    public long longValue() {
+        if (this.isIntegral()) return this.bigIntegerValue().longValue();
+        return this.bigDecimalValue().longValue();
+    }
+
+    @Override
+    public float floatValue() {
+        return Float.parseFloat(value);
+    }
+
+    @Override
+    public double doubleValue() {
+        return Double.parseDouble(value);
+    }
+
+    @Override
+    public int length() {
+        return value.length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return value.charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return value.subSequence(start, end);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        return object instanceof JsonNumber number && number.value.equals(value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+
+}
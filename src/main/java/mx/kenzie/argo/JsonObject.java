@@ -2,7 +2,6 @@ package mx.kenzie.argo;
 
 import mx.kenzie.argo.meta.JsonException;
 
-import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class JsonObject extends JsonElement {
@@ -14,6 +13,11 @@ public class JsonObject extends JsonElement {
         this.open();
     }
 
+    JsonObject(Json json, boolean opened) {
+        super(json);
+        if (!opened) this.open();
+    }
+
     public void write(Map<?, ?> map) {
         if (!this.isWritable()) throw new JsonException("This Json controller has no writer.");
         for (Map.Entry<?, ?> entry : map.entrySet()) this.write(String.valueOf(entry.getKey()), entry.getValue());
@@ -23,9 +27,18 @@ public class JsonObject extends JsonElement {
         if (!first) this.writeString(", ");
         this.writeString(controller.getIndent());
         assert key != null;
-        this.writeChar('"');
+        this.writeQuoted(key);
+        this.writeString(": ");
+        this.first = false;
+    }
+
+    /**
+     * Writes a key that has already been quoted and followed by the separator.
+     */
+    void writeEncodedKey(String key) {
+        if (!first) this.writeString(", ");
+        this.writeString(controller.getIndent());
         this.writeString(key);
-        this.writeString("\": ");
         this.first = false;
     }
 
@@ -44,42 +57,46 @@ public class JsonObject extends JsonElement {
     }
 
     public <Type> void writeObject(Object object, Class<Type> type) {
-        final Map<String, Object> map = new LinkedHashMap<>();
-        this.json.marshal(object, type, map);
-        this.write(map);
+        if (!this.isWritable()) throw new JsonException("This Json controller has no writer.");
+        Codec.of(type).write(json, object, this);
     }
 
     public String readKey() {
-        char c;
-        do {
-            this.mark(4);
-            c = this.readChar();
-        } while (c == ',' || Character.isWhitespace(c));
+        final JsonInput input = json.input;
+        int c;
+        while ((c = input.skipWhitespace()) == ',') input.read();
         if (c == '"') {
-            final StringBuilder builder = new StringBuilder();
-            return new Json.StringReader(json.reader, builder).read();
+            input.read();
+            return json.readKey();
         } else if (c == '}') {
-            this.reset();
             return null;
-        } else throw new JsonException("Expected key start '\"', found '" + c + "'.");
+        } else if (c == -1) {
+            throw new JsonException("Reached end of stream while reading object.");
+        } else throw new JsonException("Expected key start '\"', found '" + (char) c + "'.");
     }
 
     protected void skipSeparator() {
-        while (this.readChar() != ':') ;
+        final JsonInput input = json.input;
+        int c;
+        while ((c = input.read()) != ':')
+            if (c == -1) throw new JsonException("Reached end of stream while expecting ':'.");
     }
 
     public Object readValue() {
+        return Json.read(this.readInitial(), json);
+    }
+
+    /**
+     * Moves past the separator and consumes the first character of the value.
+     */
+    char readInitial() {
         this.skipSeparator();
-        char c;
-        do {
-            this.mark(2);
-            c = this.readChar();
-        } while (Character.isWhitespace(c));
-        return Json.read(c, json);
+        this.json.input.skipWhitespace();
+        return this.readChar();
     }
 
     public Map<String, Object> readMap() {
-        return this.toMap(new LinkedHashMap<>());
+        return this.toMap(new JsonMap());
     }
 
     public <Container extends Map<String, Object>> Container toMap(Container map) {
@@ -89,11 +106,11 @@ public class JsonObject extends JsonElement {
     }
 
     public <Type> Type toObject(Type object) {
-        return json.unmarshal(object, object.getClass(), this.readMap());
+        return Codec.of(object.getClass()).read(json, object, this);
     }
 
     public <Type> Type toObject(Class<Type> type) {
-        return json.unmarshal(type, this.readMap());
+        return Codec.of(type).create(json, this);
     }
 
     @Override
@@ -115,7 +132,7 @@ public class JsonObject extends JsonElement {
             this.controller.exit();
             this.writeString(controller.getIndent());
             this.json.writeChar('}');
-            this.flush();
+            this.complete();
         } else while (true) switch (this.readChar()) {
             case '}':
                 return;
@@ -0,0 +1,98 @@
+package mx.kenzie.argo;
+
+import java.io.Closeable;
+import java.io.Flushable;
+
+abstract class JsonOutput implements Closeable, Flushable {
+
+    static final char[] HEX = "0123456789ABCDEF".toCharArray();
+    static final char[] ESCAPES = new char[128];
+
+    static {
+        for (int c = 0; c < ' '; c++) ESCAPES[c] = 'u';
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\r'] = 'r';
+        ESCAPES['\t'] = 't';
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\f'] = 'f';
+    }
+
+    final char[] digits = new char[20];
+
+    abstract void write(char c);
+
+    abstract void write(String string);
+
+    abstract void write(String string, int offset, int length);
+
+    abstract void write(char[] chars, int offset, int length);
+
+    void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            this.write("-9223372036854775808");
+            return;
+        }
+        if (value < 0) {
+            this.write('-');
+            value = -value;
+        }
+        int index = digits.length;
+        do {
+            digits[--index] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        this.write(digits, index, digits.length - index);
+    }
+
+    /**
+     * Writes the string in quotes, escaping as it goes. Runs of characters that need no escaping
+     * are copied in bulk.
+     *
+     * @param unicode whether non-ASCII characters are written as unicode escapes rather than as themselves
+     */
+    void writeQuoted(String string, boolean unicode) {
+        this.write('"');
+        final int length = string.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = string.charAt(i);
+            if (c < 128) {
+                final char escape = ESCAPES[c];
+                if (escape == 0) continue;
+                if (i > start) this.write(string, start, i - start);
+                if (escape == 'u') this.writeUnicode(c);
+                else {
+                    this.write('\\');
+                    this.write(escape);
+                }
+            } else if (unicode) {
+                if (i > start) this.write(string, start, i - start);
+                this.writeUnicode(c);
+            } else continue;
+            start = i + 1;
+        }
+        if (start < length) this.write(string, start, length - start);
+        this.write('"');
+    }
+
+    private void writeUnicode(char c) {
+        this.write('\\');
+        this.write('u');
+        this.write(HEX[c >>> 12]);
+        this.write(HEX[c >>> 8 & 0xF]);
+        this.write(HEX[c >>> 4 & 0xF]);
+        this.write(HEX[c & 0xF]);
+    }
+
+    /**
+     * Writes anything buffered to the underlying sink and flushes that.
+     */
+    @Override
+    public abstract void flush();
+
+    @Override
+    public abstract void close();
+
+}
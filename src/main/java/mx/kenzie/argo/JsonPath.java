@@ -0,0 +1,183 @@
+package mx.kenzie.argo;
+
+import mx.kenzie.argo.meta.JsonException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A compiled path such as {@code $.meta.id}, {@code items[*].price} or {@code a['b c'][3]}.
+ * The input is walked once: only values on the path are entered, everything else is skipped without decoding,
+ * and only the matched values are read.
+ */
+public final class JsonPath {
+
+    private static final int ANY = -1;
+
+    private final String path;
+    private final String[] keys;
+    private final int[] indices;
+
+    private JsonPath(String path, String[] keys, int[] indices) {
+        this.path = path;
+        this.keys = keys;
+        this.indices = indices;
+    }
+
+    public static JsonPath compile(String path) {
+        final List<String> keys = new ArrayList<>();
+        final List<Integer> indices = new ArrayList<>();
+        int index = path.startsWith("$") ? 1 : 0;
+        final int length = path.length();
+        while (index < length) {
+            final char c = path.charAt(index);
+            if (c == '[') {
+                final int close = path.indexOf(']', index);
+                if (close < 0) throw new JsonException("Unclosed '[' in path '" + path + "'.");
+                final String inner = path.substring(index + 1, close).trim();
+                if (inner.equals("*")) {
+                    keys.add(null);
+                    indices.add(ANY);
+                } else if (inner.length() > 1 && (inner.charAt(0) == '\'' || inner.charAt(0) == '"')
+                    && inner.charAt(inner.length() - 1) == inner.charAt(0)) {
+                    keys.add(inner.substring(1, inner.length() - 1));
+                    indices.add(0);
+                } else try {
+                    final int element = Integer.parseInt(inner);
+                    if (element < 0) throw new NumberFormatException();
+                    keys.add(null);
+                    indices.add(element);
+                } catch (NumberFormatException ex) {
+                    throw new JsonException("Invalid index '" + inner + "' in path '" + path + "'.");
+                }
+                index = close + 1;
+                continue;
+            }
+            if (c == '.') index++;
+            else if (index > (path.startsWith("$") ? 1 : 0))
+                throw new JsonException("Unexpected '" + c + "' in path '" + path + "'.");
+            int end = index;
+            while (end < length && ".[]".indexOf(path.charAt(end)) < 0) end++;
+            if (end == index) throw new JsonException("Empty key in path '" + path + "'.");
+            final String key = path.substring(index, end);
+            keys.add(key.equals("*") ? null : key);
+            indices.add(key.equals("*") ? ANY : 0);
+            index = end;
+        }
+        final int[] array = new int[indices.size()];
+        for (int i = 0; i < array.length; i++) array[i] = indices.get(i);
+        return new JsonPath(path, keys.toArray(new String[0]), array);
+    }
+
+    /**
+     * @return the first value on the path, or null if there is none
+     */
+    public Object read(Json json) {
+        final Object[] result = new Object[1];
+        this.walk(json, value -> {
+            result[0] = value;
+            return false;
+        });
+        return result[0];
+    }
+
+    public Object read(String string) {
+        try (final Json json = new Json(string)) {
+            return this.read(json);
+        }
+    }
+
+    public List<Object> readAll(Json json) {
+        final List<Object> list = new ArrayList<>();
+        this.walk(json, list::add);
+        return list;
+    }
+
+    public List<Object> readAll(String string) {
+        try (final Json json = new Json(string)) {
+            return this.readAll(json);
+        }
+    }
+
+    /**
+     * Hands each matching value to the action as soon as it has been read.
+     */
+    public void forEach(Json json, Consumer<Object> action) {
+        this.walk(json, value -> {
+            action.accept(value);
+            return true;
+        });
+    }
+
+    private void walk(Json json, Predicate<Object> action) {
+        json.input.skipWhitespace();
+        this.visit(json, json.readChar(), 0, action);
+    }
+
+    /**
+     * @return false once the action wants no more values
+     */
+    private boolean visit(Json json, char initial, int step, Predicate<Object> action) {
+        if (step == keys.length) return action.test(Json.read(initial, json));
+        final JsonInput input = json.input;
+        final String key = keys[step];
+        final int index = indices[step];
+        if (initial == '{' && (key != null || index == ANY)) {
+            if (input.skipWhitespace() == '}') {
+                input.read();
+                return true;
+            }
+            while (true) {
+                if (json.readChar() != '"') throw new JsonException("Expected key start '\"' in object.");
+                final String name = json.readKey();
+                if (input.skipWhitespace() != ':') throw new JsonException("Expected ':' after key '" + name + "'.");
+                input.read();
+                input.skipWhitespace();
+                final char next = json.readChar();
+                if (key == null || key.equals(name)) {
+                    if (!this.visit(json, next, step + 1, action)) return false;
+                } else input.skipValue(next);
+                if (!this.next(json, '}')) return true;
+            }
+        } else if (initial == '[' && key == null) {
+            if (input.skipWhitespace() == ']') {
+                input.read();
+                return true;
+            }
+            for (int count = 0; ; count++) {
+                input.skipWhitespace();
+                final char next = json.readChar();
+                if (index == ANY || index == count) {
+                    if (!this.visit(json, next, step + 1, action)) return false;
+                    if (index == count) {
+                        input.skipContainer('[');
+                        return true;
+                    }
+                } else input.skipValue(next);
+                if (!this.next(json, ']')) return true;
+            }
+        }
+        input.skipValue(initial);
+        return true;
+    }
+
+    private boolean next(Json json, char end) {
+        final int c = json.input.skipWhitespace();
+        json.input.read();
+        if (c == end) return false;
+        if (c == ',') {
+            json.input.skipWhitespace();
+            return true;
+        }
+        if (c == -1) throw new JsonException("Reached end of Json while expecting '" + end + "'.");
+        throw new JsonException("Expected ',' or '" + end + "', found '" + (char) c + "'.");
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+}
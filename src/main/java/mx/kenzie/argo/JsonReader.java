@@ -0,0 +1,230 @@
+package mx.kenzie.argo;
+
+import mx.kenzie.argo.meta.JsonException;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A pull parser that reads the input one token at a time, holding only the current token
+ * and the nesting of the containers around it.
+ */
+public class JsonReader implements Closeable, AutoCloseable {
+
+    private static final byte OBJECT_FIRST = 1, OBJECT_NEXT = 2, OBJECT_VALUE = 3, ARRAY_FIRST = 4, ARRAY_NEXT = 5;
+
+    protected final Json json;
+    protected final JsonInput input;
+    private byte[] stack = new byte[16];
+    private int depth;
+    private JsonToken token;
+    private String string;
+    private Number number;
+
+    public JsonReader(Json json) {
+        if (json.input == null) throw new JsonException("This Json controller has no reader.");
+        this.json = json;
+        this.input = json.input;
+    }
+
+    /**
+     * Advances to the next token.
+     *
+     * @return the token, or null once the end of the input has been reached
+     */
+    public JsonToken nextToken() {
+        int c = input.skipWhitespace();
+        if (depth == 0) {
+            if (c == -1) return token = null;
+            return token = this.value(c);
+        }
+        switch (stack[depth - 1]) {
+            case OBJECT_FIRST, OBJECT_NEXT -> {
+                if (c == '}') {
+                    this.input.read();
+                    this.depth--;
+                    return token = JsonToken.END_OBJECT;
+                }
+                if (stack[depth - 1] == OBJECT_NEXT) c = this.comma(c);
+                if (c != '"') throw this.unexpected(c, "key start '\"'");
+                this.input.read();
+                this.string = json.readKey();
+                this.stack[depth - 1] = OBJECT_VALUE;
+                return token = JsonToken.KEY;
+            }
+            case OBJECT_VALUE -> {
+                if (c != ':') throw this.unexpected(c, "':'");
+                this.input.read();
+                this.stack[depth - 1] = OBJECT_NEXT;
+                return token = this.value(input.skipWhitespace());
+            }
+            default -> {
+                if (c == ']') {
+                    this.input.read();
+                    this.depth--;
+                    return token = JsonToken.END_ARRAY;
+                }
+                if (stack[depth - 1] == ARRAY_NEXT) c = this.comma(c);
+                this.stack[depth - 1] = ARRAY_NEXT;
+                return token = this.value(c);
+            }
+        }
+    }
+
+    private int comma(int c) {
+        if (c != ',') throw this.unexpected(c, "','");
+        this.input.read();
+        return input.skipWhitespace();
+    }
+
+    private JsonToken value(int c) {
+        this.string = null;
+        this.number = null;
+        switch (c) {
+            case '{' -> {
+                this.input.read();
+                this.push(OBJECT_FIRST);
+                return JsonToken.START_OBJECT;
+            }
+            case '[' -> {
+                this.input.read();
+                this.push(ARRAY_FIRST);
+                return JsonToken.START_ARRAY;
+            }
+            case '"' -> {
+                this.input.read();
+                this.string = input.readString(json.scratch);
+                return JsonToken.STRING;
+            }
+            case 't' -> {
+                this.input.read();
+                this.input.literal("true");
+                return JsonToken.TRUE;
+            }
+            case 'f' -> {
+                this.input.read();
+                this.input.literal("false");
+                return JsonToken.FALSE;
+            }
+            case 'n' -> {
+                this.input.read();
+                this.input.literal("null");
+                return JsonToken.NULL;
+            }
+            case -1 -> throw new JsonException("Reached end of Json while expecting a value.");
+        }
+        if (c >= '0' && c <= '9' || c == '-') {
+            this.input.read();
+            this.number = Json.readNumber((char) c, json);
+            return JsonToken.NUMBER;
+        }
+        throw this.unexpected(c, "value start");
+    }
+
+    private void push(byte scope) {
+        if (depth == stack.length) this.stack = Arrays.copyOf(stack, depth << 1);
+        this.stack[depth++] = scope;
+    }
+
+    private JsonException unexpected(int c, String expected) {
+        if (c == -1) return new JsonException("Reached end of Json while expecting " + expected + ".");
+        return new JsonException("Expected " + expected + ", found '" + (char) c + "'.");
+    }
+
+    public JsonToken currentToken() {
+        return token;
+    }
+
+    /**
+     * @return how many containers the reader is currently inside
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * If the current token opens an object or array, skips to its matching end token.
+     */
+    public void skipChildren() {
+        if (token == null || !token.isStart()) return;
+        this.input.skipContainer(token == JsonToken.START_OBJECT ? '{' : '[');
+        this.depth--;
+        this.token = token == JsonToken.START_OBJECT ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+    }
+
+    /**
+     * Reads the whole value starting at the current token, moving the reader to the value's last token.
+     */
+    public Object readValue() {
+        if (token == null) throw new JsonException("There is no current value.");
+        return switch (token) {
+            case START_OBJECT -> {
+                final Map<String, Object> map = new JsonMap();
+                while (this.nextToken() == JsonToken.KEY) {
+                    final String key = string;
+                    this.nextToken();
+                    map.put(key, this.readValue());
+                }
+                yield map;
+            }
+            case START_ARRAY -> {
+                final List<Object> list = new ArrayList<>();
+                while (!this.nextToken().isEnd()) list.add(this.readValue());
+                yield list;
+            }
+            case STRING -> string;
+            case NUMBER -> number;
+            case TRUE -> true;
+            case FALSE -> false;
+            case NULL -> null;
+            default -> throw new JsonException("Current token " + token + " is not a value.");
+        };
+    }
+
+    public String getKey() {
+        if (token != JsonToken.KEY) throw new JsonException("Current token " + token + " is not a key.");
+        return string;
+    }
+
+    public String getString() {
+        if (token != JsonToken.STRING && token != JsonToken.KEY)
+            throw new JsonException("Current token " + token + " is not a string.");
+        return string;
+    }
+
+    public Number getNumber() {
+        if (token != JsonToken.NUMBER) throw new JsonException("Current token " + token + " is not a number.");
+        return number;
+    }
+
+    public int getInt() {
+        return this.getNumber().intValue();
+    }
+
+    public long getLong() {
+        return this.getNumber().longValue();
+    }
+
+    public double getDouble() {
+        return this.getNumber().doubleValue();
+    }
+
+    public boolean getBoolean() {
+        if (token == JsonToken.TRUE) return true;
+        if (token == JsonToken.FALSE) return false;
+        throw new JsonException("Current token " + token + " is not a boolean.");
+    }
+
+    public boolean isNull() {
+        return token == JsonToken.NULL;
+    }
+
+    @Override
+    public void close() {
+        this.json.close();
+    }
+
+}
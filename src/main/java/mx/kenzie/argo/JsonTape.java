@@ -0,0 +1,483 @@
+package mx.kenzie.argo;
+
+import mx.kenzie.argo.meta.JsonException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * A structural index over a complete json document, built in one pass.
+ * Each value takes one slot on the tape, recording where it starts and ends in the source;
+ * containers also record their size and the slot after their last child, so whole subtrees can be stepped over.
+ * Values are only decoded when the {@link Map} or {@link List} views are read, and then cached.
+ */
+final class JsonTape {
+
+    static final byte OBJECT = 0, ARRAY = 1, STRING = 2, ESCAPED = 3, NUMBER = 4, TRUE = 5, FALSE = 6, NULL = 7;
+    private static final byte VALUE = 0, FIRST_VALUE = 1, NEXT = 2, KEY = 3, FIRST_KEY = 4, COLON = 5;
+    private static final Object UNSET = new Object();
+
+    final Source source;
+    final Json.Numbers numbers;
+    byte[] kinds = new byte[64];
+    int[] starts = new int[64], ends = new int[64], next = new int[64];
+    int size;
+
+    JsonTape(Source source, Json.Numbers numbers) {
+        this.source = source;
+        this.numbers = numbers;
+        this.index();
+    }
+
+    private int add(byte kind, int start, int end) {
+        if (size == kinds.length) {
+            final int length = size << 1;
+            this.kinds = Arrays.copyOf(kinds, length);
+            this.starts = Arrays.copyOf(starts, length);
+            this.ends = Arrays.copyOf(ends, length);
+            this.next = Arrays.copyOf(next, length);
+        }
+        this.kinds[size] = kind;
+        this.starts[size] = start;
+        this.ends[size] = end;
+        this.next[size] = size + 1;
+        return size++;
+    }
+
+    /**
+     * Checks the document while indexing it: as in {@link JsonFeeder}, each container tracks what may come next,
+     * so separators must sit between values and every key must be followed by a colon.
+     */
+    private void index() {
+        final Source source = this.source;
+        int[] stack = new int[16];
+        int depth = 0, index = source.start;
+        byte state = VALUE;
+        final int limit = source.end;
+        while (true) {
+            index = source.whitespace(index);
+            if (index >= limit) {
+                if (depth > 0 || size == 0) throw new JsonException("Reached end of Json while reading a value.");
+                return;
+            }
+            final int c = source.at(index);
+            if (state == NEXT || state == COLON) {
+                final boolean object = kinds[stack[depth - 1]] == OBJECT;
+                if (state == COLON) {
+                    if (c != ':') throw unexpected(c, "':'", index);
+                    state = VALUE;
+                } else if (c == ',') state = object ? KEY : VALUE;
+                else if (c == (object ? '}' : ']')) {
+                    this.close(stack[--depth]);
+                    if (depth == 0) return;
+                } else throw unexpected(c, "',' or '" + (object ? '}' : ']') + "'", index);
+                index++;
+                continue;
+            }
+            if (c == ']' && state == FIRST_VALUE || c == '}' && state == FIRST_KEY) {
+                this.close(stack[--depth]);
+                if (depth == 0) return;
+                state = NEXT;
+                index++;
+                continue;
+            }
+            final boolean key = state == KEY || state == FIRST_KEY;
+            if (key && c != '"') throw unexpected(c, "key start '\"'", index);
+            if (depth > 0) this.ends[stack[depth - 1]]++;
+            if (c == '{' || c == '[') {
+                final int node = this.add(c == '{' ? OBJECT : ARRAY, index, 0);
+                if (depth == stack.length) stack = Arrays.copyOf(stack, depth << 1);
+                stack[depth++] = node;
+                state = c == '{' ? FIRST_KEY : FIRST_VALUE;
+                index++;
+                continue;
+            }
+            final int start = index;
+            if (c == '"') {
+                boolean escaped = false;
+                index++;
+                while (true) {
+                    index = source.quote(index);
+                    if (index >= limit) throw new JsonException("Reached end of Json without closing quote '\"'");
+                    if (source.at(index++) == '"') break;
+                    escaped = true;
+                    index++;
+                }
+                this.add(escaped ? ESCAPED : STRING, start, index);
+            } else {
+                while (index < limit) {
+                    final int b = source.at(index);
+                    if (b <= ' ' || b == ',' || b == ':' || b == '}' || b == ']') break;
+                    index++;
+                }
+                final byte kind;
+                if (c >= '0' && c <= '9' || c == '-') {
+                    if (!this.isNumber(start, index))
+                        throw new JsonException("Malformed number '" + source.string(start, index) + "' at " + start + ".");
+                    kind = NUMBER;
+                } else if (source.matches(start, index, "true")) kind = TRUE;
+                else if (source.matches(start, index, "false")) kind = FALSE;
+                else if (source.matches(start, index, "null")) kind = NULL;
+                else throw new JsonException("Unable to decipher value starting '" + (char) c + "'.");
+                this.add(kind, start, index);
+            }
+            if (depth == 0) return;
+            state = key ? COLON : NEXT;
+        }
+    }
+
+    /**
+     * Ends a container. An object has counted its keys and values, which becomes a count of entries.
+     */
+    private void close(int node) {
+        if (kinds[node] == OBJECT) this.ends[node] >>= 1;
+        this.next[node] = size;
+    }
+
+    /**
+     * @return whether the range is a well-formed number: a sign, digits, a fraction and an exponent
+     */
+    private boolean isNumber(int start, int end) {
+        int index = start;
+        if (source.at(index) == '-') index++;
+        final int digits = index;
+        while (index < end && isDigit(source.at(index))) index++;
+        if (index == digits) return false;
+        if (index < end && source.at(index) == '.') {
+            final int fraction = ++index;
+            while (index < end && isDigit(source.at(index))) index++;
+            if (index == fraction) return false;
+        }
+        if (index < end && (source.at(index) | 0x20) == 'e') {
+            index++;
+            if (index < end && (source.at(index) == '+' || source.at(index) == '-')) index++;
+            final int exponent = index;
+            while (index < end && isDigit(source.at(index))) index++;
+            if (index == exponent) return false;
+        }
+        return index == end;
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static JsonException unexpected(int c, String expected, int index) {
+        return new JsonException("Expected " + expected + ", found '" + (char) c + "' at " + index + ".");
+    }
+
+    Object value(int node) {
+        return switch (kinds[node]) {
+            case OBJECT -> new LazyMap(this, node);
+            case ARRAY -> new LazyList(this, node);
+            case STRING -> source.string(starts[node] + 1, ends[node] - 1);
+            case ESCAPED -> source.input(starts[node] + 1, ends[node]).readString(new StringBuilder());
+            case NUMBER -> {
+                final int start = starts[node];
+                yield NumberParser.read((char) source.at(start), source.input(start + 1, ends[node]), new StringBuilder(), numbers);
+            }
+            case TRUE -> true;
+            case FALSE -> false;
+            default -> null;
+        };
+    }
+
+    /**
+     * The slots of a container's children, in order.
+     */
+    int[] children(int node) {
+        final int count = kinds[node] == OBJECT ? ends[node] << 1 : ends[node];
+        final int[] children = new int[count];
+        for (int i = 0, child = node + 1; i < count; i++, child = next[child]) children[i] = child;
+        return children;
+    }
+
+    boolean isKey(int node, String key) {
+        if (kinds[node] == ESCAPED) return this.value(node).equals(key);
+        return source.matches(starts[node] + 1, ends[node] - 1, key);
+    }
+
+    /**
+     * Random access to the characters (or UTF-8 bytes) of the document.
+     */
+    abstract static class Source {
+
+        final int start, end;
+
+        Source(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        abstract int at(int index);
+
+        abstract String string(int start, int end);
+
+        abstract JsonInput input(int start, int end);
+
+        abstract boolean matches(int start, int end, String string);
+
+        int quote(int index) {
+            int c;
+            while (index < end && (c = this.at(index)) != '"' && c != '\\') index++;
+            return index;
+        }
+
+        int whitespace(int index) {
+            while (index < end && this.at(index) <= ' ') index++;
+            return index;
+        }
+
+    }
+
+    static final class Chars extends Source {
+
+        private final CharSequence sequence;
+
+        Chars(CharSequence sequence, int start, int end) {
+            super(start, end);
+            this.sequence = sequence;
+        }
+
+        @Override
+        int at(int index) {
+            return sequence.charAt(index);
+        }
+
+        @Override
+        String string(int start, int end) {
+            return sequence.subSequence(start, end).toString();
+        }
+
+        @Override
+        JsonInput input(int start, int end) {
+            return new StringInput(sequence, start, end - start);
+        }
+
+        @Override
+        boolean matches(int start, int end, String string) {
+            if (end - start != string.length()) return false;
+            for (int i = start; i < end; i++) if (sequence.charAt(i) != string.charAt(i - start)) return false;
+            return true;
+        }
+
+    }
+
+    static final class Bytes extends Source {
+
+        private final ByteBuffer buffer;
+
+        Bytes(ByteBuffer buffer, int start, int end) {
+            super(start, end);
+            this.buffer = buffer;
+        }
+
+        @Override
+        int at(int index) {
+            return buffer.get(index) & 0xFF;
+        }
+
+        @Override
+        String string(int start, int end) {
+            final byte[] bytes = new byte[end - start];
+            this.buffer.get(start, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        JsonInput input(int start, int end) {
+            return new BufferInput(buffer.slice(start, end - start));
+        }
+
+        @Override
+        boolean matches(int start, int end, String string) {
+            if (end - start != string.length()) return this.string(start, end).equals(string);
+            for (int i = start; i < end; i++) {
+                final byte b = buffer.get(i);
+                if (b < 0) return this.string(start, end).equals(string);
+                if (b != string.charAt(i - start)) return false;
+            }
+            return true;
+        }
+
+        @Override
+        int quote(int index) {
+            if (!buffer.hasArray()) return super.quote(index);
+            final int offset = buffer.arrayOffset();
+            return Scanner.INSTANCE.quote(buffer.array(), offset + index, offset + end) - offset;
+        }
+
+        @Override
+        int whitespace(int index) {
+            if (!buffer.hasArray()) return super.whitespace(index);
+            final int offset = buffer.arrayOffset();
+            return Scanner.INSTANCE.whitespace(buffer.array(), offset + index, offset + end) - offset;
+        }
+
+    }
+
+    /**
+     * A read-only view of an object on the tape. Small objects match keys against the source without decoding them,
+     * larger ones decode their keys into an index of positions on the first lookup;
+     * as with the eager map, a repeated key keeps its first position and its last value.
+     */
+    static final class LazyMap extends AbstractMap<String, Object> {
+
+        private static final int LINEAR = 8;
+
+        private final JsonTape tape;
+        private final int[] keys;
+        private final Object[] values;
+        private final String[] names;
+        private int[] order, index;
+
+        LazyMap(JsonTape tape, int node) {
+            this.tape = tape;
+            final int[] children = tape.children(node);
+            this.keys = new int[children.length >> 1];
+            for (int i = 0; i < keys.length; i++) this.keys[i] = children[i << 1];
+            this.values = new Object[keys.length];
+            this.names = new String[keys.length];
+            Arrays.fill(values, UNSET);
+        }
+
+        private static int hash(String key) {
+            final int hash = key.hashCode();
+            return hash ^ hash >>> 16;
+        }
+
+        private int find(Object key) {
+            if (!(key instanceof String string)) return -1;
+            if (keys.length <= LINEAR) {
+                for (int i = keys.length - 1; i >= 0; i--) if (tape.isKey(keys[i], string)) return i;
+                return -1;
+            }
+            if (index == null) this.index();
+            final int mask = index.length - 1;
+            for (int slot = hash(string) & mask; ; slot = slot + 1 & mask) {
+                final int position = index[slot];
+                if (position == 0) return -1;
+                if (string.equals(names[position - 1])) return position - 1;
+            }
+        }
+
+        /**
+         * Builds the index, where a repeated key is pointed at its last value.
+         */
+        private void index() {
+            final int[] index = new int[Integer.highestOneBit(keys.length) << 2];
+            final int mask = index.length - 1;
+            for (int i = 0; i < keys.length; i++) {
+                final String name = this.key(i);
+                int slot = hash(name) & mask;
+                while (index[slot] != 0 && !name.equals(names[index[slot] - 1])) slot = slot + 1 & mask;
+                index[slot] = i + 1;
+            }
+            this.index = index;
+        }
+
+        private String key(int index) {
+            if (names[index] == null) this.names[index] = (String) tape.value(keys[index]);
+            return names[index];
+        }
+
+        private Object value(int index) {
+            if (values[index] == UNSET) this.values[index] = tape.value(keys[index] + 1);
+            return values[index];
+        }
+
+        private int[] order() {
+            if (order != null) return order;
+            final Map<String, Integer> seen = new LinkedHashMap<>(keys.length);
+            for (int i = 0; i < keys.length; i++) seen.put(this.key(i), i);
+            final int[] order = new int[seen.size()];
+            int index = 0;
+            for (final int value : seen.values()) order[index++] = value;
+            return this.order = order;
+        }
+
+        @Override
+        public Object get(Object key) {
+            final int index = this.find(key);
+            return index < 0 ? null : this.value(index);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return this.find(key) >= 0;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return keys.length == 0;
+        }
+
+        @Override
+        public int size() {
+            return this.order().length;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    final int[] order = LazyMap.this.order();
+                    return new Iterator<>() {
+                        int index;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < order.length;
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (index >= order.length) throw new NoSuchElementException();
+                            final int current = order[index++];
+                            return new SimpleImmutableEntry<>(LazyMap.this.key(current), LazyMap.this.value(current));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return LazyMap.this.size();
+                }
+            };
+        }
+
+    }
+
+    /**
+     * A read-only view of an array on the tape.
+     */
+    static final class LazyList extends AbstractList<Object> implements RandomAccess {
+
+        private final JsonTape tape;
+        private final int[] elements;
+        private final Object[] values;
+
+        LazyList(JsonTape tape, int node) {
+            this.tape = tape;
+            this.elements = tape.children(node);
+            this.values = new Object[elements.length];
+            Arrays.fill(values, UNSET);
+        }
+
+        @Override
+        public Object get(int index) {
+            Objects.checkIndex(index, elements.length);
+            if (values[index] == UNSET) this.values[index] = tape.value(elements[index]);
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return elements.length;
+        }
+
+    }
+
+}
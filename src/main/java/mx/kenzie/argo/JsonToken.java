@@ -0,0 +1,27 @@
+package mx.kenzie.argo;
+
+public enum JsonToken {
+    START_OBJECT,
+    END_OBJECT,
+    START_ARRAY,
+    END_ARRAY,
+    KEY,
+    STRING,
+    NUMBER,
+    TRUE,
+    FALSE,
+    NULL;
+
+    public boolean isStart() {
+        return this == START_OBJECT || this == START_ARRAY;
+    }
+
+    public boolean isEnd() {
+        return this == END_OBJECT || this == END_ARRAY;
+    }
+
+    public boolean isValue() {
+        return this != KEY && !this.isEnd();
+    }
+
+}
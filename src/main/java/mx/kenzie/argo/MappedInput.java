@@ -0,0 +1,76 @@
+package mx.kenzie.argo;
+
+import mx.kenzie.argo.meta.JsonException;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Parses a file through a read-only memory mapping.
+ * A single mapping is limited to 2 GB, so larger files are mapped in windows that slide forward
+ * as the parser advances, keeping any marked region inside the current window.
+ */
+class MappedInput extends BufferInput {
+
+    static final long WINDOW = 1L << 30;
+
+    protected final FileChannel channel;
+    protected final long size, window;
+    protected long base;
+
+    MappedInput(Path path) {
+        this(path, WINDOW);
+    }
+
+    MappedInput(Path path, long window) {
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.size = channel.size();
+            this.window = window;
+            this.map(0);
+        } catch (IOException ex) {
+            throw new JsonException(ex);
+        }
+    }
+
+    protected void map(long start) throws IOException {
+        final long length = Math.min(window, size - start);
+        this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        this.base = start;
+        this.limit = (int) length;
+    }
+
+    @Override
+    protected boolean fill() {
+        if (base + limit >= size) return false;
+        if (mark >= 0 && position - mark > markLimit) mark = -1;
+        final int keep = mark >= 0 ? mark : position;
+        if (keep == 0) return false;
+        try {
+            this.map(base + keep);
+        } catch (IOException ex) {
+            throw new JsonException(ex);
+        }
+        this.position -= keep;
+        if (mark >= 0) this.mark -= keep;
+        return true;
+    }
+
+    @Override
+    JsonTape.Source remaining() {
+        if (base + limit < size) throw new JsonException("File is too large to index in one mapping.");
+        return super.remaining();
+    }
+
+    @Override
+    public void close() {
+        try {
+            this.channel.close();
+        } catch (IOException ex) {
+            throw new JsonException(ex);
+        }
+    }
+
+}
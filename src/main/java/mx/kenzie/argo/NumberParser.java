@@ -0,0 +1,235 @@
+package mx.kenzie.argo;
+
+import mx.kenzie.argo.meta.JsonException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Reads numbers straight from the input, accumulating up to nineteen significant digits in a long.
+ * Decimals are converted with the Eisel-Lemire algorithm, falling back to {@link Double#parseDouble(String)}
+ * for the rare inputs it cannot decide.
+ */
+final class NumberParser {
+
+    static final long SLOW = Long.MIN_VALUE;
+    private static final int MIN_EXPONENT = -342, MAX_EXPONENT = 308, MAX_DIGITS = 19, FAST_DIGITS = 18;
+    private static final long[] POWERS = new long[(MAX_EXPONENT - MIN_EXPONENT + 1) << 1];
+    private static final double[] EXACT = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    static {
+        // the top 128 bits of 5^q, truncated for positive q and rounded up for negative q
+        final BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        for (int q = MIN_EXPONENT; q <= MAX_EXPONENT; q++) {
+            BigInteger value;
+            if (q >= 0) {
+                value = BigInteger.valueOf(5).pow(q);
+                final int length = value.bitLength();
+                value = length > 128 ? value.shiftRight(length - 128) : value.shiftLeft(128 - length);
+            } else {
+                final BigInteger power = BigInteger.valueOf(5).pow(-q);
+                final int z = power.bitLength();
+                final int b = q >= -27 ? z + 127 : 2 * z + 128;
+                value = BigInteger.ONE.shiftLeft(b).divide(power).add(BigInteger.ONE);
+                while (value.bitLength() > 128) value = value.shiftRight(1);
+            }
+            final int index = q - MIN_EXPONENT << 1;
+            POWERS[index] = value.shiftRight(64).longValue();
+            POWERS[index + 1] = value.and(mask).longValue();
+        }
+    }
+
+    private NumberParser() {
+    }
+
+    static Number read(char initial, JsonInput input, StringBuilder builder, Json.Numbers policy) {
+        final long value = readLong(initial, input, builder);
+        if (value != SLOW) {
+            if (value == (int) value) return (int) value;
+            return value;
+        }
+        return convert(builder, policy);
+    }
+
+    /**
+     * Reads an integer of up to eighteen digits without boxing it.
+     * Any other number is read into the builder and {@link #SLOW} is returned, to be finished by
+     * {@link #convert(CharSequence, Json.Numbers)} or {@link #toDouble(CharSequence)}.
+     */
+    static long readLong(char initial, JsonInput input, StringBuilder builder) {
+        final boolean negative = initial == '-';
+        long value = negative ? 0 : initial - '0';
+        int count = negative ? 0 : 1, c;
+        while ((c = input.peek()) >= '0' && c <= '9' && count < FAST_DIGITS) {
+            input.read();
+            value = value * 10 + (c - '0');
+            count++;
+        }
+        if (count > 0 && c != '.' && c != 'e' && c != 'E' && (c < '0' || c > '9')) return negative ? -value : value;
+        builder.setLength(0);
+        if (negative) builder.append('-');
+        if (count > 0) {
+            final String digits = Long.toString(value);
+            for (int i = digits.length(); i < count; i++) builder.append('0');
+            builder.append(digits);
+        }
+        int last = builder.isEmpty() ? 0 : builder.charAt(builder.length() - 1);
+        while ((c = input.peek()) >= '0' && c <= '9' || c == '.' || c == 'e' || c == 'E'
+            || (c == '-' || c == '+') && (last == 'e' || last == 'E')) {
+            builder.append((char) input.read());
+            last = c;
+        }
+        return SLOW;
+    }
+
+    static double readDouble(char initial, JsonInput input, StringBuilder builder) {
+        final long value = readLong(initial, input, builder);
+        if (value != SLOW) return value;
+        if (integral(builder)) return convert(builder, Json.Numbers.STANDARD).doubleValue();
+        return toDouble(builder);
+    }
+
+    /**
+     * Converts the full text of a number that did not fit the fast path.
+     */
+    static Number convert(CharSequence text, Json.Numbers policy) {
+        if (integral(text)) {
+            if (text.length() == (text.charAt(0) == '-' ? 1 : 0))
+                throw new JsonException("Unable to decipher number starting '" + text + "'.");
+            final BigInteger value = new BigInteger(text.toString());
+            if (value.bitLength() < 64) {
+                final long result = value.longValue();
+                if (result == (int) result) return (int) result;
+                return result;
+            }
+            if (policy == Json.Numbers.LAZY) return new JsonNumber(text.toString());
+            return value;
+        }
+        return switch (policy) {
+            case LAZY -> {
+                toDouble(text);
+                yield new JsonNumber(text.toString());
+            }
+            case BIG -> new BigDecimal(text.toString());
+            default -> toDouble(text);
+        };
+    }
+
+    private static boolean integral(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (c == '.' || c == 'e' || c == 'E') return false;
+        }
+        return true;
+    }
+
+    /**
+     * Converts (and validates) the text of a decimal number.
+     */
+    static double toDouble(CharSequence text) {
+        final int length = text.length();
+        final boolean negative = text.charAt(0) == '-';
+        long mantissa = 0;
+        int index = negative ? 1 : 0, digits = 0, scale = 0, exponent = 0;
+        boolean truncated = false, fraction = false, any = false;
+        for (; index < length; index++) {
+            final char c = text.charAt(index);
+            if (c >= '0' && c <= '9') {
+                any = true;
+                final int digit = c - '0';
+                if (digits < MAX_DIGITS) {
+                    if (fraction) scale--;
+                    if (mantissa == 0 && digit == 0) continue;
+                    mantissa = mantissa * 10 + digit;
+                    digits++;
+                } else {
+                    if (!fraction) scale++;
+                    if (digit != 0) truncated = true;
+                }
+            } else if (c == '.' && !fraction) fraction = true;
+            else break;
+        }
+        if (!any) throw new JsonException("Unable to decipher number starting '" + text + "'.");
+        if (index < length) {
+            final char c = text.charAt(index);
+            if (c != 'e' && c != 'E') throw new JsonException("Unable to decipher number '" + text + "'.");
+            exponent = readExponent(text, index + 1);
+        }
+        final double value = toDouble(negative, mantissa, scale + exponent, truncated);
+        if (value == value) return value;
+        return Double.parseDouble(text.toString());
+    }
+
+    private static int readExponent(CharSequence text, int index) {
+        final int length = text.length();
+        boolean negative = false;
+        if (index < length && (text.charAt(index) == '-' || text.charAt(index) == '+'))
+            negative = text.charAt(index++) == '-';
+        if (index >= length) throw new JsonException("Unable to decipher number exponent '" + text + "'.");
+        int exponent = 0;
+        for (; index < length; index++) {
+            final char c = text.charAt(index);
+            if (c < '0' || c > '9') throw new JsonException("Unable to decipher number exponent '" + text + "'.");
+            if (exponent < 100_000) exponent = exponent * 10 + (c - '0');
+        }
+        return negative ? -exponent : exponent;
+    }
+
+    /**
+     * @return the nearest double, or NaN if this could not be decided without the full digits
+     */
+    static double toDouble(boolean negative, long mantissa, int exponent, boolean truncated) {
+        if (mantissa == 0) return truncated ? Double.NaN : negative ? -0.0 : 0.0;
+        if (exponent < MIN_EXPONENT) return truncated ? Double.NaN : negative ? -0.0 : 0.0;
+        if (exponent > MAX_EXPONENT) return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        if (!truncated && exponent >= -22 && exponent <= 22 && mantissa >= 0 && mantissa <= 1L << 53) {
+            final double value = exponent < 0 ? mantissa / EXACT[-exponent] : mantissa * EXACT[exponent];
+            return negative ? -value : value;
+        }
+        final double value = eiselLemire(mantissa, exponent, negative);
+        if (!truncated || value != value) return value;
+        if (Double.compare(value, eiselLemire(mantissa + 1, exponent, negative)) == 0) return value;
+        return Double.NaN;
+    }
+
+    private static double eiselLemire(long mantissa, int exponent, boolean negative) {
+        final int clz = Long.numberOfLeadingZeros(mantissa);
+        final long man = mantissa << clz;
+        long exponent2 = (217706L * exponent >> 16) + 64 + 1023 - clz;
+        final int index = exponent - MIN_EXPONENT << 1;
+        final long high = POWERS[index], low = POWERS[index + 1];
+        long xHigh = multiplyHigh(man, high), xLow = man * high;
+        if ((xHigh & 0x1FF) == 0x1FF && Long.compareUnsigned(xLow + man, man) < 0) {
+            final long yHigh = multiplyHigh(man, low), yLow = man * low;
+            long mergedHigh = xHigh;
+            final long mergedLow = xLow + yHigh;
+            if (Long.compareUnsigned(mergedLow, xLow) < 0) mergedHigh++;
+            if ((mergedHigh & 0x1FF) == 0x1FF && mergedLow + 1 == 0 && Long.compareUnsigned(yLow + man, man) < 0)
+                return Double.NaN;
+            xHigh = mergedHigh;
+            xLow = mergedLow;
+        }
+        final long msb = xHigh >>> 63;
+        long result = xHigh >>> msb + 9;
+        exponent2 -= 1 ^ msb;
+        if (xLow == 0 && (xHigh & 0x1FF) == 0 && (result & 3) == 1) return Double.NaN;
+        result += result & 1;
+        result >>>= 1;
+        if (result >>> 53 > 0) {
+            result >>>= 1;
+            exponent2++;
+        }
+        if (exponent2 <= 0 || exponent2 >= 0x7FF) return Double.NaN;
+        long bits = exponent2 << 52 | result & 0x000F_FFFF_FFFF_FFFFL;
+        if (negative) bits |= 0x8000_0000_0000_0000L;
+        return Double.longBitsToDouble(bits);
+    }
+
+    private static long multiplyHigh(long x, long y) {
+        return Math.multiplyHigh(x, y) + (x >> 63 & y) + (y >> 63 & x);
+    }
+
+}
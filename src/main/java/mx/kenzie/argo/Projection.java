@@ -0,0 +1,118 @@
+package mx.kenzie.argo;
+
+import java.lang.reflect.Array;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A set of fields to write, such as {@code Projection.of("name", "child.bean")}.
+ * A bare name keeps the whole value, a dotted path keeps only the named parts of it
+ * (applied to each element when the value is an array or list).
+ * The selected fields of each class are resolved once and reused, and fields that are left out are never read.
+ */
+public final class Projection {
+
+    private final Map<String, Projection> children;
+    private final Map<Class<?>, Plan> plans = new ConcurrentHashMap<>(4);
+
+    private Projection(Map<String, Projection> children) {
+        this.children = children;
+    }
+
+    public static Projection of(String... paths) {
+        final Map<String, Object> tree = new LinkedHashMap<>();
+        for (final String path : paths) {
+            Map<String, Object> level = tree;
+            final String[] parts = path.split("\\.", -1);
+            for (int i = 0; i < parts.length; i++) {
+                final String part = parts[i];
+                if (i == parts.length - 1) {
+                    level.put(part, null);
+                    break;
+                }
+                if (level.containsKey(part) && level.get(part) == null) break;
+                @SuppressWarnings("unchecked") final Map<String, Object> next
+                    = (Map<String, Object>) level.computeIfAbsent(part, key -> new LinkedHashMap<>());
+                level = next;
+            }
+        }
+        return build(tree);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Projection build(Map<String, Object> tree) {
+        final Map<String, Projection> children = new HashMap<>(tree.size() << 1);
+        for (final Map.Entry<String, Object> entry : tree.entrySet())
+            children.put(entry.getKey(), entry.getValue() == null ? null : build((Map<String, Object>) entry.getValue()));
+        return new Projection(children);
+    }
+
+    void write(Json json, Object object) {
+        if (object == null) json.writeString("null");
+        else if (object instanceof Map<?, ?> map) try (JsonObject writer = new JsonObject(json)) {
+            for (final Map.Entry<?, ?> entry : map.entrySet()) {
+                final String key = String.valueOf(entry.getKey());
+                if (!children.containsKey(key)) continue;
+                final Projection child = children.get(key);
+                writer.writeKey(key);
+                if (child == null) Codec.write(json, entry.getValue(), Object.class, true);
+                else child.write(json, entry.getValue());
+            }
+        }
+        else if (object instanceof List<?> list) try (JsonArray writer = new JsonArray(json)) {
+            for (final Object element : list) {
+                writer.next();
+                this.write(json, element);
+            }
+        }
+        else if (object.getClass().isArray() && !object.getClass().getComponentType().isPrimitive())
+            try (JsonArray writer = new JsonArray(json)) {
+                for (int i = 0, length = Array.getLength(object); i < length; i++) {
+                    writer.next();
+                    this.write(json, Array.get(object, i));
+                }
+            }
+        else if (object instanceof String || object instanceof Number || object instanceof Boolean
+            || object instanceof Character || object instanceof Enum<?> || object instanceof JsonData
+            || object.getClass().isArray()) Codec.write(json, object, object.getClass(), true);
+        else try (JsonObject writer = new JsonObject(json)) {
+                this.write(json, object, object.getClass(), writer);
+            }
+    }
+
+    void write(Json json, Object object, Class<?> type, JsonObject writer) {
+        final Plan plan = plans.computeIfAbsent(type, key -> new Plan(Codec.of(key)));
+        for (int i = 0; i < plan.properties.length; i++) {
+            final Codec.Property property = plan.properties[i];
+            final Projection child = plan.children[i];
+            if (child == null) {
+                writer.writeEncodedKey(property.key);
+                property.write(json, object);
+            } else {
+                writer.writeEncodedKey(property.key);
+                child.write(json, property.get(object));
+            }
+        }
+    }
+
+    /**
+     * The selected properties of one class, in declaration order, with the projection for each of their values.
+     */
+    private final class Plan {
+
+        final Codec.Property[] properties;
+        final Projection[] children;
+
+        Plan(Codec codec) {
+            final List<Codec.Property> list = new ArrayList<>();
+            for (final Codec.Property property : codec.properties)
+                if (Projection.this.children.containsKey(property.name)) list.add(property);
+            this.properties = list.toArray(new Codec.Property[0]);
+            this.children = new Projection[properties.length];
+            for (int i = 0; i < properties.length; i++)
+                this.children[i] = Projection.this.children.get(properties[i].name);
+        }
+
+    }
+
+}
@@ -0,0 +1,74 @@
+package mx.kenzie.argo;
+
+import mx.kenzie.argo.meta.JsonException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * Reads a character stream through a buffer that is refilled (and grown, to keep a marked region) as it runs out.
+ */
+class ReaderInput extends CharArrayInput {
+
+    protected Reader reader;
+
+    ReaderInput(Reader reader) {
+        super(new char[8192], 0, 0);
+        this.reader = reader;
+    }
+
+    /**
+     * Moves this onto a new reader, keeping the buffer.
+     */
+    ReaderInput reuse(Reader reader) {
+        this.reader = reader;
+        this.position = limit = 0;
+        this.mark = -1;
+        return this;
+    }
+
+    @Override
+    protected boolean fill() {
+        if (mark >= 0 && position - mark > markLimit) mark = -1;
+        final int keep = mark >= 0 ? mark : position;
+        if (keep > 0) {
+            System.arraycopy(buffer, keep, buffer, 0, limit - keep);
+            this.limit -= keep;
+            this.position -= keep;
+            if (mark >= 0) this.mark -= keep;
+        }
+        if (limit == buffer.length) this.buffer = Arrays.copyOf(buffer, buffer.length << 1);
+        try {
+            int read;
+            do read = reader.read(buffer, limit, buffer.length - limit); while (read == 0);
+            if (read < 0) return false;
+            this.limit += read;
+            return true;
+        } catch (IOException ex) {
+            throw new JsonException(ex);
+        }
+    }
+
+    /**
+     * The tape gets its own copy, since this buffer is refilled by further reads and kept on reuse.
+     */
+    @Override
+    JsonTape.Source remaining() {
+        while (this.fill()) ;
+        final char[] rest = Arrays.copyOfRange(buffer, position, limit);
+        this.position = limit;
+        return new JsonTape.Chars(CharBuffer.wrap(rest), 0, rest.length);
+    }
+
+    @Override
+    public void close() {
+        try {
+            this.reader.close();
+        } catch (IOException ex) {
+            throw new JsonException(ex);
+        }
+    }
+
+}
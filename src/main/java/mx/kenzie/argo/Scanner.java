@@ -0,0 +1,61 @@
+package mx.kenzie.argo;
+
+/**
+ * Finds the next interesting byte in a run of UTF-8.
+ * The vector implementation is used when the {@code jdk.incubator.vector} module is present,
+ * otherwise this falls back to a plain loop.
+ */
+abstract class Scanner {
+
+    static final Scanner INSTANCE = load();
+
+    private static Scanner load() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return new Scalar();
+        try {
+            return (Scanner) Class.forName("mx.kenzie.argo.VectorScanner").getDeclaredConstructor().newInstance();
+        } catch (Throwable ex) {
+            return new Scalar();
+        }
+    }
+
+    /**
+     * @return the index of the first quote or backslash in the range, or the end of the range
+     */
+    abstract int quote(byte[] bytes, int from, int to);
+
+    /**
+     * @return the index of the first byte in the range that is not ascii whitespace, or the end of the range
+     */
+    abstract int whitespace(byte[] bytes, int from, int to);
+
+    /**
+     * @return the index of the first quote, bracket or brace in the range, or the end of the range
+     */
+    abstract int structure(byte[] bytes, int from, int to);
+
+    static final class Scalar extends Scanner {
+
+        @Override
+        int quote(byte[] bytes, int from, int to) {
+            byte b;
+            while (from < to && (b = bytes[from]) != '"' && b != '\\') from++;
+            return from;
+        }
+
+        @Override
+        int whitespace(byte[] bytes, int from, int to) {
+            byte b;
+            while (from < to && (b = bytes[from]) <= ' ' && b >= 0) from++;
+            return from;
+        }
+
+        @Override
+        int structure(byte[] bytes, int from, int to) {
+            byte b;
+            while (from < to && (b = bytes[from]) != '"' && (b | 0x20) != '{' && (b | 0x20) != '}') from++;
+            return from;
+        }
+
+    }
+
+}
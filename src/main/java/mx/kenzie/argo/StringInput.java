@@ -0,0 +1,60 @@
+package mx.kenzie.argo;
+
+class StringInput extends JsonInput {
+
+    protected final CharSequence sequence;
+
+    StringInput(CharSequence sequence) {
+        this(sequence, 0, sequence.length());
+    }
+
+    StringInput(CharSequence sequence, int offset, int length) {
+        this.sequence = sequence;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    @Override
+    int read() {
+        if (position >= limit) return -1;
+        return sequence.charAt(position++);
+    }
+
+    @Override
+    int peek() {
+        if (position >= limit) return -1;
+        return sequence.charAt(position);
+    }
+
+    @Override
+    int at(int index) {
+        return sequence.charAt(index);
+    }
+
+    @Override
+    String string(int start, int end) {
+        return sequence.subSequence(start, end).toString();
+    }
+
+    @Override
+    void append(StringBuilder builder, int start, int end) {
+        builder.append(sequence, start, end);
+    }
+
+    @Override
+    String symbol(SymbolTable symbols, int start, int length, int hash) {
+        return symbols.get(sequence, start, length, hash);
+    }
+
+    @Override
+    JsonTape.Source remaining() {
+        final JsonTape.Source source = new JsonTape.Chars(sequence, position, limit);
+        this.position = limit;
+        return source;
+    }
+
+    @Override
+    public void close() {
+    }
+
+}
@@ -0,0 +1,43 @@
+package mx.kenzie.argo;
+
+/**
+ * Collects the output in a builder, which can be cleared and written into again.
+ */
+class StringOutput extends JsonOutput {
+
+    final StringBuilder builder = new StringBuilder();
+
+    @Override
+    void write(char c) {
+        this.builder.append(c);
+    }
+
+    @Override
+    void write(String string) {
+        this.builder.append(string);
+    }
+
+    @Override
+    void write(String string, int offset, int length) {
+        this.builder.append(string, offset, offset + length);
+    }
+
+    @Override
+    void write(char[] chars, int offset, int length) {
+        this.builder.append(chars, offset, length);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public String toString() {
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,138 @@
+package mx.kenzie.argo;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Canonical strings for object keys. Keys are hashed as they are scanned and a repeated key is returned
+ * from the table without allocating anything.
+ * The table has a fixed size and stops taking new keys once it is three-quarters full (long keys are never kept),
+ * so hostile input cannot grow it.
+ * Slots are claimed atomically and a lookup gives up after a bounded number of probes,
+ * so one table can be shared between threads and parsers; a key that loses a race is simply not interned.
+ */
+public final class SymbolTable {
+
+    private static final int MAX_LENGTH = 64, MAX_PROBES = 32;
+
+    private final AtomicReferenceArray<String> table;
+    private final AtomicInteger size = new AtomicInteger();
+    private final int mask, limit;
+
+    public SymbolTable() {
+        this(128);
+    }
+
+    /**
+     * @param capacity the most keys this will hold
+     */
+    public SymbolTable(int capacity) {
+        final int slots = Integer.highestOneBit(Math.max(capacity, 2) * 2 - 1) << 1;
+        this.table = new AtomicReferenceArray<>(slots);
+        this.mask = slots - 1;
+        this.limit = slots * 3 / 4;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * @return whether the table has stopped taking new keys
+     */
+    public boolean isFull() {
+        return size.get() >= limit;
+    }
+
+    private int slot(int hash) {
+        return (hash ^ hash >>> 16) & mask;
+    }
+
+    /**
+     * Claims the first free slot from the index, unless another thread has meanwhile stored the same key.
+     */
+    private String insert(int index, int probe, String string) {
+        for (; probe < MAX_PROBES; probe++, index = index + 1 & mask) {
+            String entry = table.get(index);
+            if (entry == null) {
+                if (size.incrementAndGet() > limit) {
+                    this.size.decrementAndGet();
+                    return string;
+                }
+                if (table.compareAndSet(index, null, string)) return string;
+                this.size.decrementAndGet();
+                entry = table.get(index);
+            }
+            if (entry.equals(string)) return entry;
+        }
+        return string;
+    }
+
+    public String intern(String string) {
+        if (string.length() > MAX_LENGTH) return string;
+        return this.insert(this.slot(string.hashCode()), 0, string);
+    }
+
+    String get(char[] chars, int offset, int length, int hash) {
+        if (length > MAX_LENGTH) return new String(chars, offset, length);
+        int index = this.slot(hash), probe = 0;
+        search:
+        for (String entry; probe < MAX_PROBES && (entry = table.get(index)) != null; probe++, index = index + 1 & mask) {
+            if (entry.hashCode() != hash || entry.length() != length) continue;
+            for (int i = 0; i < length; i++) if (entry.charAt(i) != chars[offset + i]) continue search;
+            return entry;
+        }
+        if (probe == MAX_PROBES) return new String(chars, offset, length);
+        return this.insert(index, probe, new String(chars, offset, length));
+    }
+
+    String get(CharSequence sequence, int offset, int length, int hash) {
+        if (length > MAX_LENGTH) return sequence.subSequence(offset, offset + length).toString();
+        int index = this.slot(hash), probe = 0;
+        search:
+        for (String entry; probe < MAX_PROBES && (entry = table.get(index)) != null; probe++, index = index + 1 & mask) {
+            if (entry.hashCode() != hash || entry.length() != length) continue;
+            for (int i = 0; i < length; i++) if (entry.charAt(i) != sequence.charAt(offset + i)) continue search;
+            return entry;
+        }
+        final String string = sequence.subSequence(offset, offset + length).toString();
+        return probe == MAX_PROBES ? string : this.insert(index, probe, string);
+    }
+
+    /**
+     * Looks up an ASCII key.
+     */
+    String get(byte[] bytes, int offset, int length, int hash) {
+        if (length > MAX_LENGTH) return new String(bytes, offset, length, StandardCharsets.ISO_8859_1);
+        int index = this.slot(hash), probe = 0;
+        search:
+        for (String entry; probe < MAX_PROBES && (entry = table.get(index)) != null; probe++, index = index + 1 & mask) {
+            if (entry.hashCode() != hash || entry.length() != length) continue;
+            for (int i = 0; i < length; i++) if (entry.charAt(i) != bytes[offset + i]) continue search;
+            return entry;
+        }
+        final String string = new String(bytes, offset, length, StandardCharsets.ISO_8859_1);
+        return probe == MAX_PROBES ? string : this.insert(index, probe, string);
+    }
+
+    /**
+     * Looks up an ASCII key.
+     */
+    String get(ByteBuffer buffer, int offset, int length, int hash) {
+        int index = this.slot(hash), probe = 0;
+        search:
+        for (String entry; length <= MAX_LENGTH && probe < MAX_PROBES && (entry = table.get(index)) != null;
+             probe++, index = index + 1 & mask) {
+            if (entry.hashCode() != hash || entry.length() != length) continue;
+            for (int i = 0; i < length; i++) if (entry.charAt(i) != buffer.get(offset + i)) continue search;
+            return entry;
+        }
+        final byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        final String string = new String(bytes, StandardCharsets.ISO_8859_1);
+        return length > MAX_LENGTH || probe == MAX_PROBES ? string : this.insert(index, probe, string);
+    }
+
+}
@@ -0,0 +1,116 @@
+package mx.kenzie.argo;
+
+/**
+ * Decodes UTF-8 as it is read. Ascii is returned as it is, other characters are decoded from the window
+ * (a supplementary character is returned as its two surrogates), and malformed sequences become the replacement character.
+ */
+abstract class Utf8Input extends JsonInput {
+
+    protected char low;
+
+    protected static int length(int lead) {
+        if (lead < 0xE0) return 2;
+        if (lead < 0xF0) return 3;
+        return 4;
+    }
+
+    protected void ensure(int bytes) {
+        while (limit - position < bytes && this.fill()) ;
+    }
+
+    @Override
+    int read() {
+        if (low != 0) {
+            final char c = low;
+            this.low = 0;
+            return c;
+        }
+        if (position >= limit && !this.fill()) return -1;
+        final int b = this.at(position);
+        if (b >= 0) {
+            this.position++;
+            return b;
+        }
+        this.ensure(4);
+        final int point = this.decode();
+        if (point < Character.MIN_SUPPLEMENTARY_CODE_POINT) return point;
+        this.low = Character.lowSurrogate(point);
+        return Character.highSurrogate(point);
+    }
+
+    @Override
+    int peek() {
+        if (low != 0) return low;
+        if (position >= limit && !this.fill()) return -1;
+        final int b = this.at(position);
+        if (b >= 0) return b;
+        this.ensure(4);
+        final int start = position, point = this.decode();
+        this.position = start;
+        if (point < Character.MIN_SUPPLEMENTARY_CODE_POINT) return point;
+        return Character.highSurrogate(point);
+    }
+
+    @Override
+    int skipWhitespace() {
+        if (low != 0) return low;
+        return super.skipWhitespace();
+    }
+
+    /**
+     * Decodes the (complete) UTF-8 sequences in the range into the builder.
+     */
+    @Override
+    void append(StringBuilder builder, int start, int end) {
+        final int mark = position;
+        this.position = start;
+        while (position < end) {
+            final int b = this.at(position);
+            if (b >= 0) {
+                builder.append((char) b);
+                this.position++;
+            } else builder.appendCodePoint(this.decode());
+        }
+        this.position = mark;
+    }
+
+    /**
+     * Finds the end of the last complete UTF-8 sequence before the limit.
+     */
+    @Override
+    protected int boundary(int start, int end) {
+        for (int i = end - 1, checked = 0; i >= start && checked < 3; i--, checked++) {
+            final int b = this.at(i) & 0xFF;
+            if (b < 0x80) return end;
+            if (b >= 0xC0) return i + length(b) > end ? i : end;
+        }
+        return end;
+    }
+
+    /**
+     * Decodes the multibyte sequence at the cursor and advances past it.
+     * Malformed sequences become the replacement character.
+     */
+    protected int decode() {
+        final int lead = this.at(position++) & 0xFF;
+        if (lead < 0xC0 || lead >= 0xF8) return 0xFFFD;
+        final int length = length(lead);
+        int point = lead & (0x3F >> (length - 1));
+        for (int i = 1; i < length; i++) {
+            if (position >= limit) return 0xFFFD;
+            final int b = this.at(position);
+            if ((b & 0xC0) != 0x80) return 0xFFFD;
+            point = point << 6 | b & 0x3F;
+            this.position++;
+        }
+        if (point > Character.MAX_CODE_POINT) return 0xFFFD;
+        return point;
+    }
+
+    @Override
+    void reset() {
+        super.reset();
+        this.low = 0;
+    }
+
+}
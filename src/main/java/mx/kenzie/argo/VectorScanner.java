@@ -0,0 +1,53 @@
+package mx.kenzie.argo;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Classifies a whole vector of bytes per step. Only loaded reflectively by {@link Scanner},
+ * so the incubator module is never needed unless it was enabled.
+ */
+final class VectorScanner extends Scanner {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final int LENGTH = SPECIES.length();
+
+    @Override
+    int quote(byte[] bytes, int from, int to) {
+        for (final int bound = to - LENGTH; from <= bound; from += LENGTH) {
+            final ByteVector vector = ByteVector.fromArray(SPECIES, bytes, from);
+            final VectorMask<Byte> mask = vector.eq((byte) '"').or(vector.eq((byte) '\\'));
+            if (mask.anyTrue()) return from + mask.firstTrue();
+        }
+        byte b;
+        while (from < to && (b = bytes[from]) != '"' && b != '\\') from++;
+        return from;
+    }
+
+    @Override
+    int whitespace(byte[] bytes, int from, int to) {
+        for (final int bound = to - LENGTH; from <= bound; from += LENGTH) {
+            final VectorMask<Byte> mask = ByteVector.fromArray(SPECIES, bytes, from)
+                .compare(VectorOperators.UNSIGNED_GT, (byte) ' ');
+            if (mask.anyTrue()) return from + mask.firstTrue();
+        }
+        byte b;
+        while (from < to && (b = bytes[from]) <= ' ' && b >= 0) from++;
+        return from;
+    }
+
+    @Override
+    int structure(byte[] bytes, int from, int to) {
+        for (final int bound = to - LENGTH; from <= bound; from += LENGTH) {
+            final ByteVector vector = ByteVector.fromArray(SPECIES, bytes, from), folded = vector.or((byte) 0x20);
+            final VectorMask<Byte> mask = vector.eq((byte) '"').or(folded.eq((byte) '{')).or(folded.eq((byte) '}'));
+            if (mask.anyTrue()) return from + mask.firstTrue();
+        }
+        byte b;
+        while (from < to && (b = bytes[from]) != '"' && (b | 0x20) != '{' && (b | 0x20) != '}') from++;
+        return from;
+    }
+
+}
@@ -0,0 +1,120 @@
+package mx.kenzie.argo;
+
+import mx.kenzie.argo.meta.JsonException;
+
+import java.io.IOException;
+import java.io.Writer;
+
+class WriterOutput extends JsonOutput {
+
+    protected Writer writer;
+    protected final char[] buffer;
+    protected int position;
+
+    WriterOutput(Writer writer) {
+        this(writer, 8192);
+    }
+
+    WriterOutput(Writer writer, int size) {
+        this.writer = writer;
+        this.buffer = new char[size];
+    }
+
+    /**
+     * Moves this onto a new writer, keeping the buffer. Anything not yet drained is dropped.
+     */
+    WriterOutput reuse(Writer writer) {
+        this.writer = writer;
+        this.position = 0;
+        return this;
+    }
+
+    protected void drain() {
+        if (position == 0) return;
+        try {
+            this.writer.write(buffer, 0, position);
+        } catch (IOException ex) {
+            throw new JsonException(ex);
+        }
+        this.position = 0;
+    }
+
+    @Override
+    void write(char c) {
+        if (position == buffer.length) this.drain();
+        this.buffer[position++] = c;
+    }
+
+    @Override
+    void write(String string) {
+        final int length = string.length();
+        if (length > buffer.length - position) {
+            this.drain();
+            if (length > buffer.length) {
+                try {
+                    this.writer.write(string);
+                } catch (IOException ex) {
+                    throw new JsonException(ex);
+                }
+                return;
+            }
+        }
+        string.getChars(0, length, buffer, position);
+        this.position += length;
+    }
+
+    @Override
+    void write(String string, int offset, int length) {
+        if (length > buffer.length - position) {
+            this.drain();
+            if (length > buffer.length) {
+                try {
+                    this.writer.write(string, offset, length);
+                } catch (IOException ex) {
+                    throw new JsonException(ex);
+                }
+                return;
+            }
+        }
+        string.getChars(offset, offset + length, buffer, position);
+        this.position += length;
+    }
+
+    @Override
+    void write(char[] chars, int offset, int length) {
+        if (length > buffer.length - position) {
+            this.drain();
+            if (length > buffer.length) {
+                try {
+                    this.writer.write(chars, offset, length);
+                } catch (IOException ex) {
+                    throw new JsonException(ex);
+                }
+                return;
+            }
+        }
+        System.arraycopy(chars, offset, buffer, position, length);
+        this.position += length;
+    }
+
+    @Override
+    public void flush() {
+        this.drain();
+        try {
+            this.writer.flush();
+        } catch (IOException ex) {
+            throw new JsonException(ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        this.drain();
+        try {
+            this.writer.close();
+        } catch (IOException ex) {
+            throw new JsonException(ex);
+        }
+    }
+
+}
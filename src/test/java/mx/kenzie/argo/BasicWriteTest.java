@@ -154,4 +154,29 @@ public class BasicWriteTest {
         assert string.equals("[{\"hello\": \"there\"}, {\"hello\": \"there\"}]") : string;
     }
 
+    @Test
+    public void decimals() {
+        final List<Object> list = List.of(0.1, -12.5, 1.0, 1e21, 2.5e-7, 0.1F, 3.4028235E38F, 1.4E-45F);
+        final String string = Json.toJson(list);
+        assert string.equals("[0.1, -12.5, 1, 1000000000000000000000, 0.00000025, 0.1, "
+            + "340282350000000000000000000000000000000, 0.0000000000000000000000000000000000000000000014]") : string;
+    }
+
+    @Test
+    public void concurrentDecimals() throws InterruptedException {
+        final Map<String, Object> map = new HashMap<>();
+        for (int i = 0; i < 50; i++) map.put("key" + i, i / 7.0);
+        final String expected = Json.toJson(map);
+        final Thread[] threads = new Thread[8];
+        final boolean[] failed = new boolean[1];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 200; j++) if (!Json.toJson(map).equals(expected)) failed[0] = true;
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) thread.join();
+        assert !failed[0];
+    }
+
 }
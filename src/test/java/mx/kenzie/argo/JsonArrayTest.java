@@ -0,0 +1,106 @@
+package mx.kenzie.argo;
+
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class JsonArrayTest {
+
+    private static InputStream endless() {
+        return new InputStream() {
+            private byte[] chunk = "[".getBytes(StandardCharsets.UTF_8);
+            private int index, position;
+
+            @Override
+            public int read() {
+                if (position >= chunk.length) {
+                    this.chunk = ("{\"id\": " + index++ + ", \"name\": \"item\"}, ").getBytes(StandardCharsets.UTF_8);
+                    this.position = 0;
+                }
+                return chunk[position++];
+            }
+        };
+    }
+
+    @Test
+    public void iterate() {
+        try (Json json = new Json("[1, \"two\", [3], {\"four\": 4}]"); JsonArray array = new JsonArray(json)) {
+            final Iterator<Object> iterator = array.iterator();
+            assert iterator.next().equals(1);
+            assert iterator.next().equals("two");
+            assert iterator.next().equals(List.of(3));
+            assert iterator.next().equals(Map.of("four", 4));
+            assert !iterator.hasNext();
+        }
+    }
+
+    @Test
+    public void lazy() {
+        final Json json = new Json(endless());
+        final JsonArray array = new JsonArray(json);
+        final List<Object> list = array.stream().limit(3).collect(Collectors.toList());
+        assert list.size() == 3;
+        assert list.get(2) instanceof Map<?, ?> map && map.get("id").equals(2) : list;
+    }
+
+    @Test
+    public void typed() {
+        final Json json = new Json(endless());
+        final JsonArray array = new JsonArray(json);
+        final int sum = array.stream(Item.class).limit(100).mapToInt(item -> item.id).sum();
+        assert sum == 4950 : sum;
+    }
+
+    @Test
+    public void reused() {
+        final Json json = new Json(endless());
+        final JsonArray array = new JsonArray(json);
+        final Item item = new Item();
+        final Iterator<Item> iterator = array.iterator(item);
+        for (int i = 0; i < 50; i++) assert iterator.next() == item && item.id == i;
+        assert item.name.equals("item");
+    }
+
+    @Test
+    public void primitives() {
+        final StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++) builder.append(i == 0 ? "" : ", ").append(i).append(".5");
+        final double[] doubles = Json.fromJson(builder.append(']').toString(), double[].class);
+        assert doubles.length == 1000 && doubles[999] == 999.5;
+        assert Arrays.equals(Json.fromJson("[1, -2, 3.7, null]", int[].class), new int[] {1, -2, 3, 0});
+        assert Arrays.equals(Json.fromJson("[12345678901234567890, 5]", new long[0]),
+            new long[] {new BigInteger("12345678901234567890").longValue(), 5});
+        assert Arrays.equals(Json.fromJson("[0.1, 2]", float[].class), new float[] {0.1F, 2});
+        assert Arrays.equals(Json.fromJson("[true, false, true]", boolean[].class), new boolean[] {true, false, true});
+        assert Arrays.equals(Json.fromJson("[\"a\", null, \"c\"]", String[].class), new String[] {"a", null, "c"});
+        final int[] existing = new int[2];
+        assert Json.fromJson("[4, 5, 6]", existing) == existing && existing[1] == 5;
+        class Result {
+
+            long[] longs;
+            String[][] grid;
+            Item[] items;
+
+        }
+        final Result result = Json.fromJson("""
+            {"longs": [1, 2], "grid": [["a"], ["b", "c"]], "items": [{"id": 3}]}""", new Result());
+        assert Arrays.equals(result.longs, new long[] {1, 2});
+        assert result.grid[1][1].equals("c");
+        assert result.items[0].id == 3;
+    }
+
+    public static class Item implements JsonData {
+
+        public int id;
+        public String name;
+
+    }
+
+}
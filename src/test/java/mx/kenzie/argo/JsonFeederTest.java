@@ -0,0 +1,57 @@
+package mx.kenzie.argo;
+
+import mx.kenzie.argo.meta.JsonException;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class JsonFeederTest {
+
+    private static final String DOCUMENT = """
+        {"name": "thé\\"re \\u00e9\\ud83d\\ude00 😀", "numbers": [0, -12, 3.5e-2, 12345678901234567890, 1E3],
+         "nested": {"empty": {}, "list": [], "flags": [true, false, null]}, "é": "世界"}""";
+
+    @Test
+    public void everySplit() {
+        final byte[] bytes = DOCUMENT.getBytes(StandardCharsets.UTF_8);
+        final Object expected = new Json(DOCUMENT).toMap();
+        for (int split = 0; split <= bytes.length; split++) {
+            final List<Object> values = new ArrayList<>();
+            final JsonFeeder feeder = new JsonFeeder(values::add);
+            feeder.feed(ByteBuffer.wrap(bytes, 0, split));
+            assert split == bytes.length || values.isEmpty() && (split == 0 || feeder.isPending()) : split;
+            feeder.feed(bytes, split, bytes.length - split);
+            feeder.end();
+            assert values.equals(List.of(expected)) : split + ": " + values;
+        }
+    }
+
+    @Test
+    public void byteByByte() {
+        final byte[] bytes = ("1 \"two\" [3] " + DOCUMENT + "\n-4.5").getBytes(StandardCharsets.UTF_8);
+        final List<Object> values = new ArrayList<>();
+        final JsonFeeder feeder = new JsonFeeder(values::add);
+        for (final byte b : bytes) feeder.feed(new byte[] {b});
+        assert values.size() == 4 : values;
+        feeder.end();
+        assert values.equals(List.of(1, "two", List.of(3), new Json(DOCUMENT).toMap(), -4.5)) : values;
+    }
+
+    @Test
+    public void malformed() {
+        for (final String text : new String[] {"{\"a\" 1}", "[1,]", "[1 2]", "{\"a\": tru}", "\"\\uZZ\"", "{\"a\": 1", "-", "[1}"}) {
+            try {
+                final JsonFeeder feeder = new JsonFeeder(value -> {});
+                feeder.feed(text.getBytes(StandardCharsets.UTF_8));
+                feeder.end();
+                assert false : text;
+            } catch (JsonException ex) {
+                // expected
+            }
+        }
+    }
+
+}
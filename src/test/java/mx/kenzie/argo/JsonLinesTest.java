@@ -0,0 +1,83 @@
+package mx.kenzie.argo;
+
+import mx.kenzie.argo.meta.JsonException;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+public class JsonLinesTest {
+
+    private static byte[] lines(int count) {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++)
+            builder.append("{\"id\": ").append(i).append(", \"name\": \"thére ").append(i).append("\"}\n");
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void ordered() {
+        final List<Object> list = new JsonLines().read(lines(20000));
+        assert list.size() == 20000 : list.size();
+        for (int i = 0; i < list.size(); i++) {
+            final Map<?, ?> map = (Map<?, ?>) list.get(i);
+            assert map.get("id").equals(i) : map;
+            assert map.get("name").equals("thére " + i) : map;
+        }
+    }
+
+    @Test
+    public void unordered() {
+        final Map<Object, Object> seen = new ConcurrentHashMap<>();
+        new JsonLines().forEach(lines(20000), value -> seen.put(((Map<?, ?>) value).get("id"), value));
+        assert seen.size() == 20000 : seen.size();
+    }
+
+    @Test
+    public void typed() {
+        final List<Item> list = new JsonLines().read(lines(5000), Item.class);
+        assert list.size() == 5000;
+        assert list.get(4321).id == 4321;
+        assert list.get(4321).name.equals("thére 4321");
+    }
+
+    @Test
+    public void blocks() {
+        final byte[] bytes = lines(3000);
+        final JsonLines lines = new JsonLines(ForkJoinPool.commonPool(), 100);
+        final List<Object> list = lines.read(new ByteArrayInputStream(bytes));
+        assert list.size() == 3000 : list.size();
+        assert ((Map<?, ?>) list.get(2999)).get("id").equals(2999);
+        final List<Object> grown = new JsonLines().read(new ByteArrayInputStream(lines(10000)));
+        assert grown.size() == 10000 && ((Map<?, ?>) grown.get(9999)).get("id").equals(9999) : grown.size();
+        final String text = "x".repeat(300000);
+        final byte[] longer = ("1\n\"" + text + "\"\n2").getBytes(StandardCharsets.UTF_8);
+        final List<Object> split = new JsonLines(ForkJoinPool.commonPool(), 1 << 17).read(new ByteArrayInputStream(longer));
+        assert split.equals(List.of(1, text, 2)) : split.size();
+        final List<Object> mixed = new JsonLines().read("1\n\n[2, 3]\r\n\"four\"".getBytes(StandardCharsets.UTF_8));
+        assert mixed.equals(List.of(1, List.of(2, 3), "four")) : mixed;
+    }
+
+    @Test
+    public void onePerLine() {
+        assert new JsonLines().read("1 \t\r\n 2\n".getBytes(StandardCharsets.UTF_8)).equals(List.of(1, 2));
+        for (final String text : new String[] {"1 2\n", "[1,\n2]\n", "{\"a\": 1} {\"b\": 2}", "\"a\"\"b\"\n3"}) {
+            try {
+                new JsonLines().read(text.getBytes(StandardCharsets.UTF_8));
+                assert false : text;
+            } catch (JsonException ex) {
+                // expected
+            }
+        }
+    }
+
+    public static class Item {
+        public int id;
+        public String name;
+    }
+
+}
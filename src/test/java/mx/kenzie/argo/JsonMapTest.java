@@ -0,0 +1,65 @@
+package mx.kenzie.argo;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.util.*;
+
+public class JsonMapTest {
+
+    @Test
+    public void matchesLinkedHashMap() {
+        final Random random = new Random(3);
+        final Map<String, Object> expected = new LinkedHashMap<>(), map = new JsonMap();
+        for (int i = 0; i < 20000; i++) {
+            final String key = "k" + random.nextInt(random.nextBoolean() ? 12 : 300);
+            switch (random.nextInt(6)) {
+                case 0 -> {
+                    assert Objects.equals(expected.remove(key), map.remove(key)) : key;
+                }
+                case 1 -> {
+                    expected.keySet().removeIf(name -> name.hashCode() % 7 == 0);
+                    map.keySet().removeIf(name -> name.hashCode() % 7 == 0);
+                }
+                default -> {
+                    assert Objects.equals(expected.put(key, i), map.put(key, i)) : key;
+                }
+            }
+            assert Objects.equals(expected.get(key), map.get(key)) : key;
+            assert expected.size() == map.size();
+        }
+        assert expected.equals(map) && map.equals(expected);
+        assert List.copyOf(expected.keySet()).equals(List.copyOf(map.keySet()));
+        assert expected.hashCode() == map.hashCode();
+        map.clear();
+        assert map.isEmpty() && map.get("k1") == null;
+    }
+
+    @Test
+    public void parsed() {
+        final Map<String, Object> map = new Json("{\"b\": 1, \"a\": {\"c\": [true]}, \"b\": 2}").toMap();
+        assert map instanceof JsonMap && map.get("a") instanceof JsonMap;
+        assert map.toString().equals("{b=2, a={c=[true]}}") : map;
+        map.entrySet().iterator().next().setValue(3);
+        assert map.get("b").equals(3);
+        assert new Json("{}").toNewMap(TreeMap::new) instanceof TreeMap;
+    }
+
+    @Test
+    public void serializable() throws IOException, ClassNotFoundException {
+        final JsonMap map = new JsonMap();
+        for (int i = 0; i < 20; i++) map.put("k" + i, i % 3 == 0 ? List.of(i) : i);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream stream = new ObjectOutputStream(bytes)) {
+            stream.writeObject(map);
+        }
+        try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            final JsonMap copy = (JsonMap) stream.readObject();
+            assert copy.equals(map) && List.copyOf(copy.keySet()).equals(List.copyOf(map.keySet())) : copy;
+            assert copy.get("k17").equals(17) && copy.containsKey("k19") && !copy.containsKey("k20");
+            copy.put("k20", 20);
+            assert copy.size() == 21 && copy.get("k20").equals(20);
+        }
+    }
+
+}
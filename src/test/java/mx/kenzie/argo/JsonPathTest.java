@@ -0,0 +1,78 @@
+package mx.kenzie.argo;
+
+import mx.kenzie.argo.meta.JsonException;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class JsonPathTest {
+
+    private static final String DOCUMENT = """
+        {"skip": {"meta": {"id": -1}}, "meta": {"name": "x\\"}", "id": 12},
+         "items": [{"price": 1.5}, {"other": [1, 2]}, {"price": 3, "price": 4}, {"price": {"nested": true}}],
+         "odd key": ["a", "b"]}""";
+
+    @Test
+    public void single() {
+        assert JsonPath.compile("$.meta.id").read(DOCUMENT).equals(12);
+        assert JsonPath.compile("meta.name").read(DOCUMENT).equals("x\"}");
+        assert JsonPath.compile("items[2].price").read(DOCUMENT).equals(3);
+        assert JsonPath.compile("$['odd key'][1]").read(DOCUMENT).equals("b");
+        assert JsonPath.compile("items[3].price").read(DOCUMENT) instanceof Map<?, ?> map && map.get("nested").equals(true);
+        assert JsonPath.compile("$.missing.id").read(DOCUMENT) == null;
+        assert JsonPath.compile("items[9]").read(DOCUMENT) == null;
+        assert JsonPath.compile("$").read("[1]").equals(List.of(1));
+    }
+
+    @Test
+    public void wildcard() {
+        final List<Object> prices = JsonPath.compile("$.items[*].price").readAll(DOCUMENT);
+        assert prices.size() == 4 && prices.subList(0, 3).equals(List.of(1.5, 3, 4)) : prices;
+        assert JsonPath.compile("*.id").readAll(DOCUMENT).equals(List.of(12)) : JsonPath.compile("*.id").readAll(DOCUMENT);
+        final List<Object> streamed = new ArrayList<>();
+        final byte[] bytes = DOCUMENT.getBytes(StandardCharsets.UTF_8);
+        try (final Json json = new Json(new ByteArrayInputStream(bytes))) {
+            JsonPath.compile("items[*]").forEach(json, streamed::add);
+        }
+        assert streamed.size() == 4 && streamed.get(1) instanceof Map<?, ?> : streamed;
+    }
+
+    @Test
+    public void invalid() {
+        for (final String path : new String[] {"a..b", "a[", "a[x]", "a[-1]", "a]"}) {
+            try {
+                JsonPath.compile(path);
+                assert false : path;
+            } catch (JsonException ex) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void skipsEveryInput() {
+        final String deep = "[".repeat(70) + "{\"a\": \"]}\"}" + "]".repeat(70);
+        final String good = "{\"skip\": " + deep + ", \"keep\": 1}", bad = "{\"skip\": [1, {\"x\": 2]], \"keep\": 1}";
+        final String nested = "{\"skip\": " + deep.replace("}]]", "]}]") + ", \"keep\": 1}";
+        final JsonPath path = JsonPath.compile("keep");
+        for (final String text : new String[] {good, bad, nested}) {
+            final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            for (final Json json : new Json[] {new Json(text), new Json(text.toCharArray()), new Json(new StringReader(text)),
+                new Json(bytes), new Json(new ByteArrayInputStream(bytes)), new Json(ByteBuffer.wrap(bytes)),
+                new Json(ByteBuffer.allocateDirect(bytes.length).put(bytes).flip())}) {
+                try {
+                    assert path.read(json).equals(1) && text == good : text;
+                } catch (JsonException ex) {
+                    assert text != good : ex;
+                }
+            }
+        }
+    }
+
+}
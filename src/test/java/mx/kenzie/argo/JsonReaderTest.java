@@ -0,0 +1,78 @@
+package mx.kenzie.argo;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class JsonReaderTest {
+
+    @Test
+    public void tokens() {
+        final String string = """
+            { "a": [1, 2.5, "x"], "b": { "c": null }, "d": true, "e": false }
+            """;
+        final List<JsonToken> tokens = new ArrayList<>();
+        try (final JsonReader reader = new JsonReader(new Json(string))) {
+            JsonToken token;
+            while ((token = reader.nextToken()) != null) tokens.add(token);
+        }
+        assert tokens.equals(List.of(
+            JsonToken.START_OBJECT,
+            JsonToken.KEY, JsonToken.START_ARRAY, JsonToken.NUMBER, JsonToken.NUMBER, JsonToken.STRING,
+            JsonToken.END_ARRAY,
+            JsonToken.KEY, JsonToken.START_OBJECT, JsonToken.KEY, JsonToken.NULL, JsonToken.END_OBJECT,
+            JsonToken.KEY, JsonToken.TRUE,
+            JsonToken.KEY, JsonToken.FALSE,
+            JsonToken.END_OBJECT
+        )) : tokens;
+    }
+
+    @Test
+    public void getters() {
+        try (final JsonReader reader = new JsonReader(new Json("{\"name\": \"bob\", \"age\": 61, \"score\": 2.5}"))) {
+            assert reader.nextToken() == JsonToken.START_OBJECT;
+            assert reader.nextToken() == JsonToken.KEY && reader.getKey().equals("name");
+            assert reader.nextToken() == JsonToken.STRING && reader.getString().equals("bob");
+            assert reader.nextToken() == JsonToken.KEY && reader.getKey().equals("age");
+            assert reader.nextToken() == JsonToken.NUMBER && reader.getInt() == 61;
+            assert reader.nextToken() == JsonToken.KEY && reader.getKey().equals("score");
+            assert reader.nextToken() == JsonToken.NUMBER && reader.getDouble() == 2.5;
+            assert reader.nextToken() == JsonToken.END_OBJECT;
+            assert reader.nextToken() == null;
+        }
+    }
+
+    @Test
+    public void skipAndStop() {
+        final String string = """
+            { "big": [[1, 2], {"x": [3]}, "y"], "wanted": {"id": 7}, "rest": [1, 2, 3] }
+            """;
+        try (final JsonReader reader = new JsonReader(new Json(string))) {
+            reader.nextToken();
+            Object found = null;
+            while (reader.nextToken() == JsonToken.KEY) {
+                final String key = reader.getKey();
+                reader.nextToken();
+                if (key.equals("wanted")) {
+                    found = reader.readValue();
+                    break;
+                }
+                reader.skipChildren();
+            }
+            assert found instanceof Map<?, ?> map && map.get("id").equals(7) : found;
+            assert reader.getDepth() == 1;
+        }
+    }
+
+    @Test
+    public void multipleValues() {
+        final List<Object> values = new ArrayList<>();
+        try (final JsonReader reader = new JsonReader(new Json("1 \"two\" [3] {}"))) {
+            while (reader.nextToken() != null) values.add(reader.readValue());
+        }
+        assert values.equals(List.of(1, "two", List.of(3), Map.of())) : values;
+    }
+
+}
@@ -0,0 +1,86 @@
+package mx.kenzie.argo;
+
+import mx.kenzie.argo.meta.JsonException;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+public class LazyTest {
+
+    private static final String DOCUMENT = """
+        {"id": 12, "name": "thé\\"re", "tags": ["a", "b", {"deep": [1.5, -3, 1e400]}],
+         "flag": true, "none": null, "empty": {}, "id": 13, "big": 123456789012345678901234567890}
+        """;
+
+    private static void check(Json json) {
+        try (json) {
+            final Map<String, Object> lazy = json.toLazyMap();
+            final Map<String, Object> eager = new Json(DOCUMENT).toMap();
+            assert lazy.equals(eager) : lazy;
+            assert eager.equals(lazy) : lazy;
+            assert lazy.get("id").equals(13) : lazy.get("id");
+            assert lazy.get("name").equals("thé\"re");
+            assert lazy.containsKey("none") && lazy.get("none") == null;
+            assert !lazy.containsKey("missing");
+            final List<?> tags = (List<?>) lazy.get("tags");
+            assert tags.size() == 3 && tags.get(1).equals("b");
+            assert ((Map<?, ?>) tags.get(2)).get("deep").equals(List.of(1.5, -3, Double.POSITIVE_INFINITY));
+            assert tags == lazy.get("tags");
+            assert List.copyOf(lazy.keySet()).equals(List.of("id", "name", "tags", "flag", "none", "empty", "big"));
+        }
+    }
+
+    @Test
+    public void sources() {
+        final byte[] bytes = DOCUMENT.getBytes(StandardCharsets.UTF_8);
+        check(new Json(DOCUMENT));
+        check(new Json(DOCUMENT.toCharArray()));
+        check(new Json(new StringReader(DOCUMENT)));
+        check(new Json(bytes));
+        check(new Json(new ByteArrayInputStream(bytes)));
+        check(new Json(ByteBuffer.allocateDirect(bytes.length).put(bytes).flip()));
+    }
+
+    @Test
+    public void wide() {
+        final StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < 40; i++) builder.append('"').append("k").append(i % 30).append("\": ").append(i).append(", ");
+        final String text = builder.append("\"th\\u00E9\": 0}").toString();
+        for (final Json json : new Json[] {new Json(text), new Json(text.getBytes(StandardCharsets.UTF_8))}) {
+            final Map<String, Object> lazy = json.toLazyMap();
+            assert lazy.equals(new Json(text).toMap()) : lazy;
+            assert lazy.size() == 31 && lazy.get("k3").equals(33) && lazy.get("k29").equals(29) : lazy;
+            assert lazy.containsKey("thé") && !lazy.containsKey("k30") && lazy.get(3) == null;
+            assert List.copyOf(lazy.keySet()).subList(0, 3).equals(List.of("k0", "k1", "k2"));
+        }
+    }
+
+    @Test
+    public void list() {
+        final List<Object> list = new Json("[1, \"two\", [3]]").toLazyList();
+        assert list.equals(List.of(1, "two", List.of(3))) : list;
+        assert new Json("\"hi\"").toLazy().equals("hi");
+    }
+
+    @Test
+    public void malformed() {
+        for (final String text : new String[] {"{\"a\": 1", "[1, 2}", "{\"a\"}", "{1: 2}", "[nul]", "\"open",
+            "[1 2]", "[1,,2]", "[1,]", "[,1]", "{\"a\" \"b\"}", "{\"a\": 1 \"b\": 2}", "{\"a\": 1,}", "{\"a\":: 1}",
+            "{,\"a\": 1}", "[1:2]", "{\"a\", 1}", "12abc", "[1.]", "[-]", "[1e]", "[1.2.3]", "[--1]", "[1-2]"}) {
+            for (final Json json : new Json[] {new Json(text), new Json(text.getBytes(StandardCharsets.UTF_8))}) try {
+                json.toLazy();
+                assert false : text;
+            } catch (JsonException ex) {
+                // expected
+            }
+        }
+        for (final String text : new String[] {"[]", "{}", "[[], {}, [[]]]", "-0.5e+3", "{\"a\":[1,{\"b\":null}],\"c\":{}}"})
+            assert new Json(text).toLazy().equals(new Json(text).readObject()) : text;
+    }
+
+}
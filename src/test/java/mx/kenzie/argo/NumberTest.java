@@ -0,0 +1,55 @@
+package mx.kenzie.argo;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+public class NumberTest {
+
+    @Test
+    public void exponents() {
+        assert Json.parseJson("1e10") instanceof Double number && number == 1e10;
+        assert Json.parseJson("-2.5E-3") instanceof Double number && number == -2.5E-3;
+        assert Json.parseJson("6.02214076e+23") instanceof Double number && number == 6.02214076e23;
+        assert Json.parseJson("1e400") instanceof Double number && number.isInfinite();
+        assert Json.parseJson("0.1000000000000000055511151231257827021181583404541015625") instanceof Double number
+            && number == 0.1;
+    }
+
+    @Test
+    public void integers() {
+        assert Json.parseJson("2147483647") instanceof Integer;
+        assert Json.parseJson("2147483648") instanceof Long number && number == 2147483648L;
+        assert Json.parseJson("-9223372036854775808") instanceof Long number && number == Long.MIN_VALUE;
+        assert Json.parseJson("9223372036854775808") instanceof BigInteger number
+            && number.equals(new BigInteger("9223372036854775808"));
+    }
+
+    @Test
+    public void big() {
+        try (final Json json = new Json("[12345678901234567890123, 0.10000000000000000000001, 3]")) {
+            json.setNumbers(Json.Numbers.BIG);
+            final List<Object> list = json.toList();
+            assert list.get(0).equals(new BigInteger("12345678901234567890123")) : list;
+            assert list.get(1).equals(new BigDecimal("0.10000000000000000000001")) : list;
+            assert list.get(2).equals(3) : list;
+        }
+    }
+
+    @Test
+    public void lazy() {
+        final String string = "[12345678901234567890123, 0.10000000000000000000001, 1.5e3, 3]";
+        try (final Json json = new Json(string)) {
+            json.setNumbers(Json.Numbers.LAZY);
+            final List<Object> list = json.toList();
+            assert list.get(0) instanceof JsonNumber number && number.isIntegral()
+                && number.bigIntegerValue().equals(new BigInteger("12345678901234567890123")) : list;
+            assert list.get(2) instanceof JsonNumber number && number.doubleValue() == 1500 : list;
+            assert list.get(3).equals(3) : list;
+            assert Json.toJson(list).equals(string) : Json.toJson(list);
+        }
+    }
+
+}
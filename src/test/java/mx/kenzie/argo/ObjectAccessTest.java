@@ -1,11 +1,14 @@
 package mx.kenzie.argo;
 
+import mx.kenzie.argo.meta.JsonException;
+import mx.kenzie.argo.meta.Present;
 import mx.kenzie.grammar.Any;
 import org.junit.Test;
 
 import java.io.StringWriter;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 public class ObjectAccessTest {
@@ -294,6 +297,176 @@ public class ObjectAccessTest {
         assert json.contains("\"name\": \"Bearimy\"") : json;
     }
 
+    @Test
+    public void codec() {
+        enum Mood {HAPPY, SAD}
+        class Result {
+
+            final Integer number = 1;
+            char letter;
+            Mood mood = Mood.SAD;
+            long[] values;
+
+        }
+        assert Codec.of(Result.class) == Codec.of(Result.class);
+        final String string = """
+            { "number": 4, "letter": "c", "mood": "HAPPY", "values": [1, 2, 3] }""";
+        final Result result = Json.fromJson(string, new Result());
+        assert result.number == 4;
+        assert result.letter == 'c';
+        assert result.mood == Mood.HAPPY;
+        assert Arrays.equals(result.values, new long[] {1, 2, 3});
+        final String json = Json.toJson(result);
+        assert json.equals("{\"number\": 4, \"letter\": \"c\", \"mood\": \"HAPPY\", \"values\": [1, 2, 3]}") : json;
+    }
+
+    @Test
+    public void direct() {
+        record Point(int x, double y) {
+        }
+        class Child {
+
+            final int bar = 6;
+            int foo;
+
+        }
+        class Result {
+
+            final Child child = new Child();
+            byte b;
+            short s;
+            int i = 7;
+            long l;
+            float f;
+            double d;
+            boolean flag;
+            String name;
+            Point point;
+            Point[] points;
+            Integer boxed;
+
+        }
+        final String string = """
+            { "b": 12, "s": -300, "i": null, "l": 123456789012345678901, "f": 1.5, "d": 2.5e-3, "flag": true,
+              "unknown": {"a": [1, {"b": 2}]}, "name": "hello", "child": { "foo": 3 }, "point": {"y": 4, "x": 2.9},
+              "points": [{"x": 1}, {"x": 2, "y": 0.5}], "boxed": 99999 }""";
+        final Result result = Json.fromJson(string, new Result());
+        assert result.b == 12 && result.s == -300 && result.i == 0;
+        assert result.l == new java.math.BigInteger("123456789012345678901").longValue() : result.l;
+        assert result.f == 1.5F && result.d == 2.5e-3 && result.flag;
+        assert result.name.equals("hello");
+        assert result.child.foo == 3 && result.child.bar == 6;
+        assert result.point.equals(new Point(2, 4)) : result.point;
+        assert Arrays.equals(result.points, new Point[] {new Point(1, 0), new Point(2, 0.5)});
+        assert result.boxed == 99999;
+    }
+
+    @Test
+    public void skipsUnknown() {
+        record Small(int id, String name) {
+        }
+        class Holder {
+
+            int id;
+            String name;
+
+        }
+        final String string = """
+            {"big": [[{"q": "\\\\"}], -1.5e3, true, null, "é\\"}]{["], "id": 4, "text": "a\\"}", "nested": {"id": 9, "x": {}},
+             "name": "kept", "flag": false, "empty": [] }""";
+        final byte[] bytes = string.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        for (final Json json : new Json[] {new Json(string), new Json(string.toCharArray()), new Json(bytes),
+            new Json(new java.io.ByteArrayInputStream(bytes)), new Json(java.nio.ByteBuffer.wrap(bytes))}) {
+            try (json) {
+                assert json.toObject(Small.class).equals(new Small(4, "kept"));
+            }
+        }
+        final Holder holder = Json.fromJson(string, new Holder());
+        assert holder.id == 4 && holder.name.equals("kept");
+        try {
+            Json.fromJson("{\"other\": [1, {\"a\": \"b}", new Holder());
+            assert false;
+        } catch (JsonException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void projection() {
+        class Child {
+
+            int bean = 3;
+            String name = "child";
+
+        }
+        class Result {
+
+            String hello = "there";
+            @Present String nothing;
+            long big = 5;
+            Child child = new Child();
+            Child[] children = {new Child(), null};
+            Map<String, Object> map = Map.of("a", 1, "b", List.of(2));
+
+        }
+        final Result result = new Result();
+        assert Json.toJson(result, null, "big", "hello", "nothing").equals("{\"hello\": \"there\", \"nothing\": null, \"big\": 5}")
+            : Json.toJson(result, null, "big", "hello");
+        final Projection projection = Projection.of("child.bean", "children.name", "map.b", "child");
+        assert Json.toJson(result, projection, null).equals("{\"child\": {\"bean\": 3, \"name\": \"child\"}, "
+            + "\"children\": [{\"name\": \"child\"}, null], \"map\": {\"b\": [2]}}") : Json.toJson(result, projection, null);
+        final String nested = Json.toJson(result, Projection.of("child.bean", "hello"), "  ");
+        assert nested.equals("{\n  \"hello\": \"there\", \n  \"child\": {\n    \"bean\": 3\n  }\n}") : nested;
+    }
+
+    @Test
+    public void directWrite() {
+        enum Mood {HAPPY, SAD}
+        class Child {
+
+            int bean = 3;
+            double[] numbers = {0.5, 2};
+
+        }
+        class Result {
+
+            String hello = "thére";
+            String nothing;
+            char letter = 'q';
+            Mood mood = Mood.HAPPY;
+            long big = Long.MIN_VALUE;
+            float small = 0.1F;
+            boolean flag = true;
+            Child child = new Child();
+            Child[] children = {new Child(), null};
+            int[] numbers = {1, -2};
+            Map<String, Object> map = Map.of("a", 1);
+
+        }
+        final Result result = new Result();
+        assert Json.toJson(result).equals(Json.toJson(Json.toMap(result))) : Json.toJson(result);
+        assert Json.toJson(result, "  ").equals(Json.toJson(Json.toMap(result), "  ")) : Json.toJson(result, "  ");
+        assert Json.toJson(result).startsWith("{\"hello\": \"th\\u00E9re\", \"nothing\": null, \"letter\": \"q\"");
+        assert Json.toJsonArray(new Child()).equals("[{\"bean\": 3, \"numbers\": [0.5, 2]}]") : Json.toJsonArray(new Child());
+    }
+
+    @Test
+    public void present() {
+        class Result {
+
+            @Present String hello;
+            @Present String there = "there";
+            String nothing;
+
+        }
+        final Result result = new Result();
+        assert Json.toJson(result).equals("{\"hello\": null, \"there\": \"there\", \"nothing\": null}") : Json.toJson(result);
+        assert Json.toMap(result).containsKey("hello");
+        final Codec codec = Codec.of(Result.class);
+        assert codec.properties[0].present && codec.properties[0].key.equals("\"hello\": ");
+        assert codec == Codec.of(Result.class);
+    }
+
     public static final class Simple {
 
         public String hello = null;
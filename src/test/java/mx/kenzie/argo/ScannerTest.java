@@ -0,0 +1,52 @@
+package mx.kenzie.argo;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+
+public class ScannerTest {
+
+    @Test
+    public void agrees() {
+        final Scanner scalar = new Scanner.Scalar(), scanner = Scanner.INSTANCE;
+        final byte[] alphabet = {' ', '\n', '\t', 'a', '"', '\\', (byte) 0xC3, (byte) 0xA9, '{', '}', '[', ']', (byte) 0xDB, 0};
+        final Random random = new Random(7);
+        for (int round = 0; round < 2000; round++) {
+            final byte[] bytes = new byte[random.nextInt(300)];
+            final int sparse = 1 + random.nextInt(200);
+            for (int i = 0; i < bytes.length; i++)
+                bytes[i] = random.nextInt(sparse) == 0 ? alphabet[random.nextInt(alphabet.length)] : (byte) (random.nextBoolean() ? ' ' : 'x');
+            final int from = bytes.length == 0 ? 0 : random.nextInt(bytes.length), to = from + random.nextInt(bytes.length - from + 1);
+            assert scalar.quote(bytes, from, to) == scanner.quote(bytes, from, to);
+            assert scalar.whitespace(bytes, from, to) == scanner.whitespace(bytes, from, to);
+            assert scalar.structure(bytes, from, to) == scanner.structure(bytes, from, to);
+        }
+    }
+
+    @Test
+    public void longValues() {
+        final String text = "thé \\\"quoted\\\" ".repeat(40), padding = " ".repeat(150);
+        final String json = "{" + padding + "\"key\":" + padding + "\"" + text + "\"" + padding + "}";
+        final Map<String, Object> map = new Json(json.getBytes(StandardCharsets.UTF_8)).toMap();
+        assert map.get("key").equals(new Json(json).toMap().get("key")) : map;
+        assert new Json(json.getBytes(StandardCharsets.UTF_8)).toLazyMap().equals(map);
+    }
+
+    @Test
+    public void skipsContainers() {
+        final String skipped = "{\"a\": [1, \"]}\\\\\", {\"b\": \"th\u00e9 \\\"[\"}], \"c\": {}}";
+        final String json = "{\"skip\": [" + (skipped + ", ").repeat(40) + "0], \"other\": " + skipped + ", \"keep\": [\"é\", 2]}";
+        final byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        final JsonPath path = JsonPath.compile("keep[1]");
+        assert path.read(json).equals(2);
+        assert path.read(new Json(bytes)).equals(2);
+        assert path.read(new Json(ByteBuffer.wrap(bytes))).equals(2);
+        assert path.read(new Json(direct)).equals(2);
+        assert JsonPath.compile("keep[0]").read(new Json(direct)).equals("é");
+    }
+
+}
@@ -0,0 +1,162 @@
+package mx.kenzie.argo;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class StreamReadTest {
+
+    @Test
+    public void multiByte() {
+        final String string = "{\"hello\": \"thére 世界 🌈\", \"é\": 1}";
+        final InputStream stream = new ByteArrayInputStream(string.getBytes(StandardCharsets.UTF_8));
+        try (final Json json = new Json(stream)) {
+            final Map<String, Object> map = json.toMap();
+            assert map.get("hello").equals("thére 世界 🌈") : map;
+            assert map.get("é").equals(1) : map;
+        }
+    }
+
+    @Test
+    public void escapes() {
+        final String string = "[\"a\\\"b\", \"\\u00e9\\n\", \"\\\\u0041\"]";
+        try (final Json json = new Json(string)) {
+            final List<Object> list = json.toList();
+            assert list.get(0).equals("a\"b") : list;
+            assert list.get(1).equals("é\n") : list;
+            assert list.get(2).equals("\\u0041") : list;
+        }
+    }
+
+    @Test
+    public void bufferBoundaries() {
+        final List<Object> start = new ArrayList<>();
+        final StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < 5000; i++) {
+            if (i > 0) builder.append(", ");
+            if (i % 3 == 0) {
+                start.add("世界🌈 " + i + " \"");
+                builder.append("\"世界🌈 ").append(i).append(" \\\"\"");
+            } else {
+                start.add(i);
+                builder.append(i);
+            }
+        }
+        final String string = builder.append(']').toString();
+        final InputStream stream = new ByteArrayInputStream(string.getBytes(StandardCharsets.UTF_8));
+        try (final Json json = new Json(stream)) {
+            assert json.toList().equals(start);
+        }
+        try (final Json json = new Json(new StringReader(string))) {
+            assert json.toList().equals(start);
+        }
+    }
+
+    @Test
+    public void bytes() {
+        final byte[] bytes = "..{\"a\": [true, false, null]}..".getBytes(StandardCharsets.UTF_8);
+        try (final Json json = new Json(bytes, 2, bytes.length - 4)) {
+            final Map<String, Object> map = json.toMap();
+            assert map.get("a") instanceof List<?> list && list.size() == 3 && list.get(2) == null : map;
+        }
+    }
+
+    @Test
+    public void chars() {
+        final char[] chars = "..{\"a\": \"b\\tc\", \"d\": [1, 2.5]}..".toCharArray();
+        try (final Json json = new Json(chars, 2, chars.length - 4)) {
+            final Map<String, Object> map = json.toMap();
+            assert map.get("a").equals("b\tc") : map;
+            assert map.get("d").equals(List.of(1, 2.5)) : map;
+        }
+        final StringBuilder builder = new StringBuilder("[\"hello\", \"thére\"]");
+        try (final Json json = new Json(builder)) {
+            assert json.toList().equals(List.of("hello", "thére"));
+        }
+    }
+
+    @Test
+    public void mapped() throws IOException {
+        final List<Object> start = new ArrayList<>();
+        final StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < 2000; i++) {
+            if (i > 0) builder.append(", ");
+            start.add("世界🌈 " + i);
+            builder.append("\"世界🌈 ").append(i).append('"');
+        }
+        final Path path = Files.createTempFile("argo", ".json");
+        try {
+            Files.writeString(path, builder.append(']'));
+            try (final Json json = new Json(path)) {
+                assert json.toList().equals(start);
+            }
+            try (final Json json = new Json(ByteBuffer.wrap(Files.readAllBytes(path)))) {
+                assert json.toList().equals(start);
+            }
+            try (final Json json = new Json(ByteBuffer.allocate(0))) {
+                json.input = new MappedInput(path, 61);
+                assert json.toList().equals(start);
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void reuse() {
+        final Json json = new Json("{\"a\": 1}");
+        assert json.toMap().equals(Map.of("a", 1));
+        assert json.reuse(new StringReader("[1, 2]")).toList().equals(List.of(1, 2));
+        assert json.reuse(new StringReader("[3]")).toList().equals(List.of(3));
+        assert json.reuse(new ByteArrayInputStream("{\"b\": \"c\"}".getBytes(StandardCharsets.UTF_8))).toMap().equals(Map.of("b", "c"));
+        assert json.reuse(new ByteArrayInputStream("true".getBytes(StandardCharsets.UTF_8))).readObject().equals(true);
+        assert json.reuse("[\"x\"]".getBytes(StandardCharsets.UTF_8)).toList().equals(List.of("x"));
+        final java.io.StringWriter writer = new java.io.StringWriter();
+        json.reuse(writer).write(Map.of("d", 4));
+        json.flush();
+        assert writer.toString().equals("{\"d\": 4}") : writer;
+        final Map<String, Object> lazy = json.reuse(new StringReader("{\"e\": \"f\", \"g\": [6]}")).toLazyMap();
+        assert json.reuse(new StringReader("{\"h\": \"overwritten\"}")).toMap().equals(Map.of("h", "overwritten"));
+        assert lazy.equals(Map.of("e", "f", "g", List.of(6))) : lazy;
+        final java.io.StringWriter second = new java.io.StringWriter();
+        json.reuse(second).write(List.of(5));
+        json.flush();
+        assert second.toString().equals("[5]") && writer.toString().equals("{\"d\": 4}") : second;
+    }
+
+    @Test
+    public void pooledHelpers() {
+        class Nested implements JsonData {
+            @Override
+            public void write(Json json) {
+                json.writeString(Json.toJson(Map.of("inner", Json.fromJson("{\"n\": 1}"))));
+            }
+        }
+        for (int i = 0; i < 3; i++) {
+            assert Json.toJson(List.of(i, new Nested())).equals("[" + i + ", {\"inner\": {\"n\": 1}}]") : Json.toJson(List.of(i, new Nested()));
+            assert Json.fromJson("{\"i\": " + i + "}").get("i").equals(i);
+        }
+        try {
+            Json.fromJson("{\"broken\": ");
+            assert false;
+        } catch (mx.kenzie.argo.meta.JsonException ex) {
+            // expected
+        }
+        assert Json.toJson(Map.of()).equals("{}");
+        for (int i = 0; i < 500; i++) assert Json.fromJson("{\"key" + i + "\": " + i + "}").get("key" + i).equals(i);
+        final Json json = Json.borrow();
+        assert !json.getSymbols().isFull() : json.getSymbols().size();
+        json.release();
+    }
+
+}
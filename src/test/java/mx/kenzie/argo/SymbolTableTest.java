@@ -0,0 +1,90 @@
+package mx.kenzie.argo;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+public class SymbolTableTest {
+
+    private static final String RECORDS = "[{\"name\": 1, \"é\": 2, \"a\\\"b\": 3}, {\"name\": 4, \"é\": 5, \"a\\\"b\": 6}]";
+
+    private static void check(Json json) {
+        try (json) {
+            final List<Object> list = json.toList();
+            final Map<?, ?> first = (Map<?, ?>) list.get(0), second = (Map<?, ?>) list.get(1);
+            assert first.keySet().equals(second.keySet()) : list;
+            assert List.copyOf(first.keySet()).equals(List.of("name", "é", "a\"b")) : first.keySet();
+            for (final Object key : first.keySet())
+                assert second.keySet().stream().anyMatch(other -> other == key) : key;
+        }
+    }
+
+    @Test
+    public void interned() {
+        final byte[] bytes = RECORDS.getBytes(StandardCharsets.UTF_8);
+        check(new Json(RECORDS));
+        check(new Json(RECORDS.toCharArray()));
+        check(new Json(new StringReader(RECORDS)));
+        check(new Json(bytes));
+        check(new Json(new ByteArrayInputStream(bytes)));
+        check(new Json(ByteBuffer.wrap(bytes)));
+    }
+
+    @Test
+    public void shared() {
+        final SymbolTable symbols = new SymbolTable(16);
+        final String[] keys = new String[2];
+        for (int i = 0; i < 2; i++) {
+            try (final Json json = new Json("{\"hello\": true}")) {
+                json.setSymbols(symbols);
+                keys[i] = json.toMap().keySet().iterator().next();
+            }
+        }
+        assert keys[0] == keys[1];
+        assert symbols.intern(new String("hello")) == keys[0];
+    }
+
+    @Test
+    public void bounded() {
+        final SymbolTable symbols = new SymbolTable(8);
+        for (int i = 0; i < 1000; i++) symbols.intern("key" + i);
+        assert symbols.size() <= 12 : symbols.size();
+        final String key = "key" + 999;
+        assert symbols.intern(key) == key;
+    }
+
+    @Test
+    public void concurrent() throws InterruptedException {
+        final SymbolTable symbols = new SymbolTable(8);
+        final Thread[] threads = new Thread[8];
+        final java.util.concurrent.atomic.AtomicReference<Throwable> failure = new java.util.concurrent.atomic.AtomicReference<>();
+        for (int t = 0; t < threads.length; t++) {
+            final int seed = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 20000; i++) {
+                        final String key = "key" + (i * 31 + seed) % 500;
+                        assert symbols.intern(key).equals(key);
+                        final char[] chars = key.toCharArray();
+                        assert symbols.get(chars, 0, chars.length, key.hashCode()).equals(key);
+                    }
+                } catch (Throwable ex) {
+                    failure.set(ex);
+                }
+            });
+            threads[t].start();
+        }
+        for (final Thread thread : threads) thread.join(10000);
+        for (final Thread thread : threads) assert !thread.isAlive() : "a lookup did not finish";
+        assert failure.get() == null : failure.get();
+        assert symbols.size() <= 12 : symbols.size();
+        final String missing = "absent";
+        assert symbols.intern(missing) == missing;
+    }
+
+}
@@ -2,7 +2,10 @@ package mx.kenzie.argo;
 
 import org.junit.Test;
 
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -25,9 +28,53 @@ public class UnicodeTest {
         map.put("hello", "Test \u001b Test");
         map.put("there", "Test \\u001b Test");
         final String json = Json.toJson(map);
-        assert json.equals("{\"there\": \"Test \\u001b Test\", \"hello\": \"Test \u001B Test\"}") : json;
+        assert json.equals("{\"there\": \"Test \\\\u001b Test\", \"hello\": \"Test \\u001B Test\"}") : json;
         final Map<String, Object> result = Json.fromJson(json);
-        assert result.get("hello").equals(map.get("hello"));
+        assert result.equals(map) : result;
+    }
+
+    @Test
+    public void controls() {
+        final StringBuilder builder = new StringBuilder("a\\b\\");
+        for (char c = 0; c < ' '; c++) builder.append(c);
+        final String string = builder.toString();
+        for (final boolean unicode : new boolean[] {true, false}) {
+            final StringWriter writer = new StringWriter();
+            try (final Json json = new Json(writer)) {
+                json.setEscapeUnicode(unicode);
+                json.write(List.of(string));
+            }
+            final String text = writer.toString();
+            for (int i = 0; i < text.length(); i++) assert text.charAt(i) >= ' ' : text;
+            assert text.startsWith("[\"a\\\\b\\\\\\u0000\\u0001") && text.contains("\\b\\t\\n\\u000B\\f\\r") : text;
+            assert Json.fromJson("{\"k\": " + text + "}").get("k").equals(List.of(string));
+        }
+        final Map<String, Object> keys = Map.of("a\"b\\c\n", 1);
+        assert Json.toJson(keys).equals("{\"a\\\"b\\\\c\\n\": 1}") : Json.toJson(keys);
+        assert Json.fromJson(Json.toJson(keys)).equals(keys);
+    }
+
+    @Test
+    public void raw() {
+        final StringWriter writer = new StringWriter();
+        try (final Json json = new Json(writer)) {
+            json.setEscapeUnicode(false);
+            json.write(List.of("thére \"世界\"\n", "plain"));
+        }
+        assert writer.toString().equals("[\"thére \\\"世界\\\"\\n\", \"plain\"]") : writer;
+        assert Json.toJson(List.of("thére 世界")).equals("[\"th\\u00E9re \\u4E16\\u754C\"]");
+        try (final Json json = new Json(writer.toString())) {
+            assert json.toList().equals(List.of("thére \"世界\"\n", "plain"));
+        }
+    }
+
+    @Test
+    public void charset() {
+        final String text = "[\"th\u00e9re \u4e16\"]";
+        assert new Json(text, StandardCharsets.UTF_8).toList().equals(List.of("thére 世"));
+        assert new Json(text, StandardCharsets.UTF_16).toList().equals(List.of("thére 世"));
+        assert new Json(text, StandardCharsets.ISO_8859_1).toList().equals(List.of("thére ?"));
+        assert new Json(text, StandardCharsets.US_ASCII).toList().equals(List.of("th?re ?"));
     }
 
 }
@@ -1,9 +1,15 @@
 package mx.kenzie.argo;
 
+import mx.kenzie.argo.meta.JsonException;
 import org.junit.Test;
 
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -73,4 +79,81 @@ public class WriterTest {
         assert stream.toString().equals("{\"insides\": [{\"hello\": \"there\"}]}") : stream;
     }
 
+    @Test
+    public void buffered() {
+        final int[] writes = new int[1];
+        final ByteArrayOutputStream target = new ByteArrayOutputStream();
+        final OutputStream stream = new OutputStream() {
+            @Override
+            public void write(int b) {
+                writes[0]++;
+                target.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                writes[0]++;
+                target.write(b, off, len);
+            }
+        };
+        final List<Object> list = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) list.add(Map.of("key", i));
+        try (final Json json = new Json(stream)) {
+            json.setFlush(Json.Flush.BUFFER);
+            json.write(list);
+            assert writes[0] < 100 : writes[0];
+            final int before = target.size();
+            json.flush();
+            assert target.size() > before;
+        }
+        assert writes[0] < 100 : writes[0];
+        assert target.toString().startsWith("[{\"key\": 0}, {\"key\": 1}") : target;
+        assert target.toString().endsWith("{\"key\": 9999}]") : target;
+    }
+
+    @Test
+    public void utf8() {
+        final Map<String, Object> map = new java.util.LinkedHashMap<>();
+        map.put("text", "thé 世界 😀 " + "x".repeat(9000) + " é\ud800!");
+        map.put("list", List.of(1, 2.5, true));
+        final String expected = Json.toJson(map);
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (final Json json = new Json(stream)) {
+            json.write(map);
+        }
+        assert stream.toString(StandardCharsets.UTF_8).equals(expected);
+        final ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        try (final Json json = new Json(raw)) {
+            json.setEscapeUnicode(false);
+            json.write(map);
+        }
+        final String text = raw.toString(StandardCharsets.UTF_8);
+        assert new Json(text).toMap().get("list").equals(map.get("list"));
+        assert text.contains("thé 世界 😀 ") && text.contains(" é?!") : text.substring(0, 40);
+        final java.io.StringWriter writer = new java.io.StringWriter();
+        try (final Json json = new Json(writer)) {
+            json.setEscapeUnicode(false);
+            json.write(map);
+        }
+        assert Arrays.equals(raw.toByteArray(), writer.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void buffer() {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+        final Json json = Json.into(buffer);
+        json.write(List.of("é", 1));
+        json.write(Map.of("a", true));
+        buffer.flip();
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        assert new String(bytes, StandardCharsets.UTF_8).equals("[\"\\u00E9\", 1]{\"a\": true}") : new String(bytes, StandardCharsets.UTF_8);
+        try {
+            Json.into(ByteBuffer.allocate(8)).write(List.of("too long for the buffer"));
+            assert false;
+        } catch (JsonException ex) {
+            // expected
+        }
+    }
+
 }